@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import android.util.Log;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the first load of a list of {@link #REMINDER_COUNT} reminders: with a newly created registry, which is what the first load at startup costs without {@link Codecs#warmUp()}, and with the warmed-up shared registry. Each is repeated {@link #ROUNDS} times with a new registry. The medians are logged with tag "CodecsFirstLoadBenchmark".
+ * <p>
+ * As the classes of the data types are already loaded when the test process runs, the measured difference is the creation of the type adapters, not class loading.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CodecsFirstLoadBenchmark {
+
+    private static final int REMINDER_COUNT = 200;
+    private static final int ROUNDS = 20;
+
+    @Test
+    public void firstLoad() {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < REMINDER_COUNT; i++) {
+            reminders.add(Reminder.builder().id(2 * i).date(new Date(1000L * i)).text("Reminder " + i).build());
+        }
+        String json = Reminder.toJson(reminders);
+
+        long[] coldNanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            Codecs cold = new Codecs(Codecs.createGson());
+            List<Reminder> result = Codecs.decode(cold.getReminderListAdapter(), json);
+            coldNanos[i] = System.nanoTime() - start;
+            assertEquals(REMINDER_COUNT, result.size());
+        }
+
+        Codecs.warmUp();
+        long[] warmNanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            List<Reminder> result = Reminder.fromJson(json);
+            warmNanos[i] = System.nanoTime() - start;
+            assertEquals(REMINDER_COUNT, result.size());
+        }
+
+        Arrays.sort(coldNanos);
+        Arrays.sort(warmNanos);
+        Log.i("CodecsFirstLoadBenchmark", String.format("Load of %d reminders, median of %d rounds: %.2f ms with a new registry, %.2f ms with the warmed-up registry",
+                REMINDER_COUNT, ROUNDS, coldNanos[ROUNDS / 2] / 1e6, warmNanos[ROUNDS / 2] / 1e6));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.ui.reminderslist;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import felixwiemuth.simplereminder.R;
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures frame times while scrolling through a list of {@link #REMINDER_COUNT} reminders. The reminders are only provided to the list (see {@link RemindersListFragment#remindersSource}), the saved reminders are not changed. The result is logged with tag "RemindersListScrollBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class RemindersListScrollBenchmark {
+
+    private static final int REMINDER_COUNT = 5000;
+    private static final int FRAMES = 600;
+    private static final int SCROLL_PER_FRAME_DP = 40;
+
+    private Context context;
+
+    @Before
+    public void provideReminders() {
+        context = InstrumentationRegistry.getTargetContext();
+        List<Reminder> reminders = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < REMINDER_COUNT; i++) {
+            Reminder reminder = Reminder.builder()
+                    .id(2 * i)
+                    .date(new Date(now - i * 60000L))
+                    .text("Benchmark reminder " + i)
+                    .build();
+            reminder.setStatus(Reminder.Status.DONE);
+            reminders.add(reminder);
+        }
+        RemindersListFragment.remindersSource = new RemindersListFragment.RemindersSource() {
+            @Override
+            public long getVersion(Context context) {
+                return 0;
+            }
+
+            @Override
+            public List<Reminder> getReminders(Context context) {
+                return new ArrayList<>(reminders);
+            }
+
+            @Override
+            public Set<Integer> search(Context context, String query) {
+                Set<Integer> matches = new HashSet<>();
+                for (Reminder reminder : reminders) {
+                    if (reminder.getText().contains(query)) {
+                        matches.add(reminder.getId());
+                    }
+                }
+                return matches;
+            }
+        };
+    }
+
+    @After
+    public void resetReminders() {
+        RemindersListFragment.resetRemindersSource();
+    }
+
+    @Test
+    public void scroll() throws InterruptedException {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Activity activity = instrumentation.startActivitySync(new Intent(context, RemindersListActivity.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK));
+        try {
+            instrumentation.waitForIdleSync();
+            RecyclerView list = activity.findViewById(R.id.reminders_list);
+            int dy = (int) (SCROLL_PER_FRAME_DP * activity.getResources().getDisplayMetrics().density);
+            long[] frameTimes = new long[FRAMES];
+            CountDownLatch done = new CountDownLatch(1);
+            instrumentation.runOnMainSync(() -> Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                private int frame = -1;
+                private long lastFrameTime;
+
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (frame >= 0) {
+                        frameTimes[frame] = frameTimeNanos - lastFrameTime;
+                    }
+                    lastFrameTime = frameTimeNanos;
+                    frame++;
+                    if (frame == FRAMES) {
+                        done.countDown();
+                        return;
+                    }
+                    list.scrollBy(0, dy);
+                    Choreographer.getInstance().postFrameCallback(this);
+                }
+            }));
+            assertTrue("Scrolling did not finish.", done.await(60, TimeUnit.SECONDS));
+
+            Arrays.sort(frameTimes);
+            long refreshPeriod = frameTimes[FRAMES / 10]; // frames are at least one refresh period apart
+            int slowFrames = 0;
+            for (long frameTime : frameTimes) {
+                if (frameTime > refreshPeriod * 3 / 2) {
+                    slowFrames++;
+                }
+            }
+            Log.i("RemindersListScrollBenchmark", String.format("%d reminders, %d frames: median %.1f ms, 90th percentile %.1f ms, 99th percentile %.1f ms, max %.1f ms, slow frames %d",
+                    REMINDER_COUNT, FRAMES,
+                    frameTimes[FRAMES / 2] / 1e6,
+                    frameTimes[FRAMES * 9 / 10] / 1e6,
+                    frameTimes[FRAMES * 99 / 100] / 1e6,
+                    frameTimes[FRAMES - 1] / 1e6,
+                    slowFrames));
+        } finally {
+            activity.finish();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * Collects the changes of alarms and notifications that result from changes of reminders, and applies them after the changes have been saved, so that the slow calls to the system services are made outside of the lock on the reminders.
+ * <p>
+ * Effects are first staged by an operation on the reminders. When the operation has been saved, they are committed and then applied by {@link #dispatch()}. Effects for the same reminder are merged, so only the last alarm for a reminder is set. Dispatching is serialized and takes all effects committed so far, so effects are applied in the order they were committed.
+ * <p>
+ * Staging and committing must happen while holding the lock on the reminders, dispatching must not.
+ *
+ * @author Felix Wiemuth
+ */
+class AlarmDispatcher {
+
+    /**
+     * Applies effects.
+     */
+    interface Target {
+        void cancelNotification(int id);
+
+        void scheduleAlarm(Reminder reminder);
+
+        void cancelAlarm(int id);
+    }
+
+    /**
+     * The merged effects for one reminder.
+     */
+    private static class Effect {
+        boolean cancelNotification;
+        /**
+         * The reminder to set an alarm for, null if the alarm should be cancelled.
+         */
+        Reminder alarm;
+    }
+
+    private final Target target;
+    private final Object dispatchLock = new Object();
+
+    private Map<Integer, Effect> staged = new LinkedHashMap<>();
+    private Map<Integer, Effect> committed = new LinkedHashMap<>();
+
+    AlarmDispatcher(Target target) {
+        this.target = target;
+    }
+
+    /**
+     * Stage setting the alarm of the given reminder, replacing a possibly existing one.
+     *
+     * @param reminder
+     */
+    void schedule(Reminder reminder) {
+        stage(reminder.getId(), false, reminder);
+    }
+
+    /**
+     * Stage cancelling the notification and alarm of the given reminder and setting a new alarm if it is scheduled in the future.
+     *
+     * @param reminder
+     */
+    void reschedule(Reminder reminder) {
+        boolean isFuture = reminder.getDate().getTime() > System.currentTimeMillis();
+        stage(reminder.getId(), true, reminder.getStatus() == Reminder.Status.SCHEDULED && isFuture ? reminder : null);
+    }
+
+    /**
+     * Stage cancelling the notification and alarm of the reminder with the given ID.
+     *
+     * @param id
+     */
+    void cancel(int id) {
+        stage(id, true, null);
+    }
+
+    /**
+     * Stage cancelling the alarm of the reminder with the given ID.
+     *
+     * @param id
+     */
+    void cancelAlarm(int id) {
+        stage(id, false, null);
+    }
+
+    private void stage(int id, boolean cancelNotification, Reminder alarm) {
+        merge(staged, id, cancelNotification, alarm);
+    }
+
+    private static void merge(Map<Integer, Effect> effects, int id, boolean cancelNotification, Reminder alarm) {
+        Effect effect = effects.get(id);
+        if (effect == null) {
+            effect = new Effect();
+            effects.put(id, effect);
+        }
+        effect.cancelNotification |= cancelNotification;
+        effect.alarm = alarm;
+    }
+
+    /**
+     * Drop the staged effects, as the operation which staged them failed.
+     */
+    void discard() {
+        staged.clear();
+    }
+
+    /**
+     * Commit the staged effects, as the operation which staged them was saved.
+     */
+    synchronized void commit() {
+        for (Map.Entry<Integer, Effect> e : staged.entrySet()) {
+            merge(committed, e.getKey(), e.getValue().cancelNotification, e.getValue().alarm);
+        }
+        staged.clear();
+    }
+
+    /**
+     * Apply all committed effects. Blocks while another thread is dispatching.
+     */
+    void dispatch() {
+        synchronized (dispatchLock) {
+            Map<Integer, Effect> effects;
+            synchronized (this) {
+                if (committed.isEmpty()) {
+                    return;
+                }
+                effects = committed;
+                committed = new LinkedHashMap<>();
+            }
+            for (Map.Entry<Integer, Effect> e : effects.entrySet()) {
+                int id = e.getKey();
+                Effect effect = e.getValue();
+                if (effect.cancelNotification) {
+                    target.cancelNotification(id);
+                }
+                if (effect.alarm != null) {
+                    target.scheduleAlarm(effect.alarm);
+                } else {
+                    target.cancelAlarm(id);
+                }
+            }
+        }
+    }
+}
@@ -37,6 +37,7 @@ public class BootReceiver extends BroadcastReceiver {
         if (intent.getAction().equals("android.intent.action.BOOT_COMPLETED")
         || intent.getAction().equals("android.intent.action.QUICKBOOT_POWERON")) {
             ReminderManager.scheduleAllReminders(context);
+            ReminderManager.savePendingUpdates(context);
         }
     }
 
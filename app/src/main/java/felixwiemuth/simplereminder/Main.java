@@ -20,6 +20,10 @@ package felixwiemuth.simplereminder;
 import android.app.Application;
 import android.content.Context;
 import androidx.preference.PreferenceManager;
+
+import felixwiemuth.simplereminder.data.Codecs;
+import felixwiemuth.simplereminder.ui.actions.DisplayChangeLog;
+import felixwiemuth.simplereminder.ui.util.HtmlDialogFragment;
 import org.acra.ACRA;
 import org.acra.annotation.AcraCore;
 import org.acra.annotation.AcraDialog;
@@ -48,10 +52,25 @@ public class Main extends Application {
             return;
         }
         PreferenceManager.setDefaultValues(this, R.xml.preferences, true);
+        HtmlDialogFragment.registerAction(new DisplayChangeLog());
         Prefs.getStoredRemindersListFormatVersion(this); // Initialize if not set
+        ReminderService.createNotificationChannel(this);
+        ReminderService.updateQuickAddNotification(this);
+        new Thread(() -> {
+            Codecs.warmUp(); // before anything loads reminders on the UI thread
+            ReminderManager.recoverIfNeeded(this);
+            // Reschedule reminders on app startup if this was not already done at device startup.
+            Prefs.checkRescheduleOnBoot(this);
+            ReminderManager.createWidgetSnapshotIfMissing(this);
+            TimeChangeReceiver.checkTimeZone(this);
+        }, "Startup").start();
+        TemplateStore.preload(this);
+    }
 
-        // Reschedule reminders on app startup if this was not already done at device startup.
-        Prefs.checkRescheduleOnBoot(this);
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        HtmlDialogFragment.onTrimMemory(level);
     }
 
     @Override
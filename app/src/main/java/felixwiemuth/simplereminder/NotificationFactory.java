@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.app.Notification;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.RemoteInput;
+
+import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.ui.AddReminderDialogActivity;
+
+/**
+ * Builds reminder notifications. The resources needed for every notification are resolved once and notification settings are taken from the in-memory snapshot in {@link Prefs}, so that sending many notifications at once (e.g. when rescheduling all reminders after boot) does not repeatedly read preferences and resources.
+ *
+ * @author Felix Wiemuth
+ */
+class NotificationFactory {
+
+    private static NotificationFactory instance;
+
+    private final Context context;
+    private final Uri defaultSound = Uri.parse("content://settings/system/notification_sound");
+    private final String title;
+    private final String followUpLabel;
+
+    private NotificationFactory(Context context) {
+        this.context = context;
+        title = context.getString(R.string.notification_title);
+        followUpLabel = context.getString(R.string.notification_action_follow_up);
+    }
+
+    static synchronized NotificationFactory getInstance(Context context) {
+        if (instance == null) {
+            instance = new NotificationFactory(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Build a notification with swipe and click actions related to the reminder.
+     *
+     * @param id         the reminder's ID
+     * @param text       the text to be shown
+     * @param snoozable  whether to add actions to snooze the reminder
+     * @param alertAgain whether to alert also if a notification of the reminder is still shown
+     * @return
+     */
+    Notification buildReminderNotification(int id, String text, boolean snoozable, boolean alertAgain) {
+        // Note: a new builder is used for each notification as builders must not be shared between the threads delivering reminders
+
+        PendingIntent markDoneIntent = ReminderService.intentBuilder()
+                .id(id)
+                .action(ReminderService.Action.MARK_DONE)
+                .buildPendingIntent(context);
+
+        Intent editReminderIntent = AddReminderDialogActivity.getIntentEditReminder(context, id);
+        PendingIntent editReminderPendingIntent = PendingIntent.getActivity(context, Reminder.getRequestCodeAddReminderDialogActivityPendingIntent(id), editReminderIntent, 0);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, ReminderService.CHANNEL_REMINDER)
+                .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                .setContentTitle(title)
+                .setContentText(text)
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(text))
+                .setContentIntent(editReminderPendingIntent)
+                .setDeleteIntent(markDoneIntent)
+                .setPriority(Prefs.getNotificationPriority(context))
+                .setOnlyAlertOnce(!alertAgain);
+
+        if (Prefs.isNotificationSoundEnabled(context)) {
+            builder.setSound(defaultSound); // Set default notification sound
+        }
+
+        if (snoozable) {
+            addSnoozeAction(builder, id, ReminderService.Action.SNOOZE_SHORT, Prefs.getSnoozeShortMinutes(context));
+            addSnoozeAction(builder, id, ReminderService.Action.SNOOZE_LONG, Prefs.getSnoozeLongMinutes(context));
+        }
+        addInputAction(builder, id, followUpLabel);
+
+        return builder.build();
+    }
+
+    /**
+     * Build the permanent notification to add reminders by entering text into it. Before Android 7.0, where notifications do not support input, it only opens {@link AddReminderDialogActivity}.
+     *
+     * @return
+     */
+    Notification buildQuickAddNotification() {
+        PendingIntent addReminderIntent = PendingIntent.getActivity(context, 0, new Intent(context, AddReminderDialogActivity.class).setFlags(Intent.FLAG_ACTIVITY_NEW_TASK), 0);
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, ReminderService.CHANNEL_QUICK_ADD)
+                .setSmallIcon(android.R.drawable.ic_menu_add)
+                .setContentTitle(context.getString(R.string.add_reminder_title))
+                .setContentText(context.getString(R.string.notification_quick_add_text))
+                .setContentIntent(addReminderIntent)
+                .setOngoing(true)
+                .setShowWhen(false)
+                .setPriority(NotificationCompat.PRIORITY_MIN);
+        addInputAction(builder, -1, context.getString(R.string.button_add_reminder));
+        return builder.build();
+    }
+
+    /**
+     * Add an action to enter text into the notification, which is handled by {@link ReminderService.Action#ADD_FROM_INPUT}. Does nothing before Android 7.0.
+     *
+     * @param builder
+     * @param id      the reminder's ID or -1 for the quick add notification
+     * @param label
+     */
+    private void addInputAction(NotificationCompat.Builder builder, int id, String label) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+        PendingIntent inputIntent = ReminderService.intentBuilder()
+                .id(id)
+                .action(ReminderService.Action.ADD_FROM_INPUT)
+                .buildPendingIntent(context);
+        RemoteInput remoteInput = new RemoteInput.Builder(ReminderService.EXTRA_INPUT)
+                .setLabel(context.getString(R.string.notification_input_hint))
+                .build();
+        builder.addAction(new NotificationCompat.Action.Builder(android.R.drawable.ic_menu_add, label, inputIntent)
+                .addRemoteInput(remoteInput)
+                .build());
+    }
+
+    private void addSnoozeAction(NotificationCompat.Builder builder, int id, ReminderService.Action action, int minutes) {
+        PendingIntent snoozeIntent = ReminderService.intentBuilder()
+                .id(id)
+                .action(action)
+                .buildPendingIntent(context);
+        String label = minutes % 60 == 0
+                ? context.getString(R.string.notification_action_snooze_hours, minutes / 60)
+                : context.getString(R.string.notification_action_snooze_minutes, minutes);
+        builder.addAction(android.R.drawable.ic_lock_idle_alarm, label, snoozeIntent);
+    }
+}
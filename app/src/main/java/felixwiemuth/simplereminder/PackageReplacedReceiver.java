@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * Re-arms alarms and notifications after the app was updated. Alarms and notification actions created by a previous version might use intents for components which no longer exist and would be dropped, so all reminders are scheduled again and the notifications of notified reminders are replaced.
+ *
+ * @author Felix Wiemuth
+ */
+public class PackageReplacedReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!Intent.ACTION_MY_PACKAGE_REPLACED.equals(intent.getAction())) {
+            Log.w("PackageReplacedReceiver", "Received unexpected intent: " + intent);
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        new Thread(() -> {
+            try {
+                ReminderManager.scheduleAllReminders(appContext);
+                ReminderService.refreshNotifications(appContext);
+                ReminderManager.savePendingUpdates(appContext);
+            } finally {
+                pendingResult.finish();
+            }
+        }, "PackageReplaced").start();
+    }
+}
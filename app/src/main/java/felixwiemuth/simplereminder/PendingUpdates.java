@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * Updated reminders which are not saved yet. Updates of the same reminder are merged, so that a series of updates is saved with one write and changes the alarm of the reminder once.
+ * <p>
+ * The updates are saved with the next change of the reminders or when a component flushes them at the end of its work (see {@link ReminderManager#savePendingUpdates(android.content.Context)}), at the latest when the saver scheduled with the first update runs.
+ * <p>
+ * Must only be used while holding the lock on the reminders. The saver is run on the executor without holding it.
+ *
+ * @author Felix Wiemuth
+ */
+class PendingUpdates {
+
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final Runnable saver;
+
+    /**
+     * The updated reminders by ID, in the order of their first update.
+     */
+    private final Map<Integer, Reminder> updates = new LinkedHashMap<>();
+
+    /**
+     * IDs of the reminders in {@link #updates} which have to be rescheduled when saved.
+     */
+    private final Set<Integer> reschedules = new HashSet<>();
+
+    /**
+     * The scheduled run of the saver, null if none is scheduled.
+     */
+    private ScheduledFuture<?> scheduledSave;
+
+    /**
+     * @param executor     runs the saver
+     * @param windowMillis time after the first of a series of updates when the saver is run
+     * @param saver        saves the updates, which have to be cleared with {@link #clear()} when saved
+     */
+    PendingUpdates(ScheduledExecutorService executor, long windowMillis, Runnable saver) {
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.saver = saver;
+    }
+
+    /**
+     * Add an update, replacing a pending update of the same reminder. A copy of the given reminder is kept.
+     *
+     * @param reminder
+     * @param reschedule whether the reminder has to be rescheduled when saved (kept if an earlier update of the reminder requires it)
+     */
+    void add(Reminder reminder, boolean reschedule) {
+        updates.put(reminder.getId(), reminder.copy());
+        if (reschedule) {
+            reschedules.add(reminder.getId());
+        }
+        if (scheduledSave == null) {
+            scheduledSave = executor.schedule(saver, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    boolean isEmpty() {
+        return updates.isEmpty();
+    }
+
+    /**
+     * Get the pending update of the given reminder. Changes of the returned reminder are saved with it.
+     *
+     * @param id
+     * @return the updated reminder, null if there is no pending update for it
+     */
+    Reminder get(int id) {
+        return updates.get(id);
+    }
+
+    Collection<Reminder> getAll() {
+        return updates.values();
+    }
+
+    /**
+     * Get the updated reminders which have to be rescheduled when saved.
+     *
+     * @return
+     */
+    List<Reminder> getReschedules() {
+        List<Reminder> reminders = new ArrayList<>(reschedules.size());
+        for (Integer id : reschedules) {
+            reminders.add(updates.get(id));
+        }
+        return reminders;
+    }
+
+    /**
+     * Remove all updates after they have been saved, and cancel the scheduled saver.
+     */
+    void clear() {
+        updates.clear();
+        reschedules.clear();
+        if (scheduledSave != null) {
+            scheduledSave.cancel(false);
+            scheduledSave = null;
+        }
+    }
+}
@@ -24,20 +24,26 @@ import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.widget.Toast;
 
+import android.util.SparseArray;
+
 import androidx.annotation.StringRes;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.preference.PreferenceManager;
 
+import java.util.TimeZone;
+
 import static android.content.Context.MODE_PRIVATE;
 
 /**
  * Stores preferences and current status of the app.
+ * The {@link SharedPreferences} instances, preference keys from resources and a typed snapshot of the settings are resolved once and kept in memory, as they are accessed on every reminder change and notification.
  *
  * @author Felix Wiemuth
  */
 public class Prefs {
     public static final String PREF_KEY_RUN_ON_BOOT = "run_on_boot";
+    public static final String PREF_KEY_QUICK_ADD_NOTIFICATION = "notification_quick_add";
 
     /**
      * Name of preferences that store the internal state of the app, like scheduled notifications.
@@ -50,54 +56,177 @@ public class Prefs {
     private static final String PREF_STATE_REMINDERS_FORMAT_VERSION = "remindersFormatVersion";
 
     /**
-     * The next ID for a reminder.
+     * The next ID for a reminder. Only read to move reminders of previous versions to {@link ReminderStore}.
      */
     static final String PREF_STATE_NEXTID = "nextid";
 
     /**
-     * GSON-serialized list of {@link felixwiemuth.simplereminder.data.Reminder}s.
+     * GSON-serialized list of {@link felixwiemuth.simplereminder.data.Reminder}s. Only read to move reminders of previous versions to {@link ReminderStore}.
      */
     static final String PREF_STATE_CURRENT_REMINDERS = "reminders";
 
     /**
-     * Indicates whether the list of reminders {@link #PREF_STATE_CURRENT_REMINDERS} has been updated.
+     * Version of the stored reminders {@link #PREF_STATE_CURRENT_REMINDERS}, increased with every change. Only read to move reminders of previous versions to {@link ReminderStore}.
+     */
+    static final String PREF_STATE_STORE_VERSION = "storeVersion";
+
+    /**
+     * Serialized {@link felixwiemuth.simplereminder.data.SearchIndex} over the texts of the reminders in {@link ReminderStore}.
+     */
+    static final String PREF_STATE_SEARCH_INDEX = "searchIndex";
+
+    /**
+     * The store version ({@link ReminderStore.State#version}) the stored search index corresponds to.
+     */
+    static final String PREF_STATE_SEARCH_INDEX_VERSION = "searchIndexVersion";
+
+    /**
+     * The generation of the status log of the stored reminders {@link #PREF_STATE_CURRENT_REMINDERS} (see {@link StatusLog}). Only read to move reminders of previous versions to {@link ReminderStore}.
      */
-    private static final String PREF_STATE_REMINDERS_UPDATED = "remindersUpdated";
+    static final String PREF_STATE_STATUS_LOG_GENERATION = "statusLogGeneration";
     private static final String PREF_STATE_WELCOME_MESSAGE_SHOWN = "welcomeMessageShown";
     private static final String PREF_STATE_ADD_REMINDER_DIALOG_USED = "AddReminderDialogUsed";
 
     //    private static final String PREF_STATE_BATTERY_OPTIMIZATION_DONT_SHOW_AGAIN = "battery_optimization_dont_show_again";
     private static final String PREF_STATE_RUN_ON_BOOT_DONT_SHOW_AGAIN = "run_on_boot_dont_show_again";
 
+    /**
+     * ID of the time zone in which the dates of recurring reminders were last computed (see {@link TimeChangeReceiver}).
+     */
+    private static final String PREF_STATE_TIME_ZONE = "timeZone";
+
     public static final int PERMISSION_REQUEST_CODE_BOOT = 1;
 
+    private static volatile SharedPreferences statePrefs;
+    private static volatile SharedPreferences defaultPrefs;
+
+    /**
+     * Preference keys from string resources, resolved on first use.
+     */
+    private static final SparseArray<String> keys = new SparseArray<>();
+
+    /**
+     * Typed snapshot of the settings (default preferences). Null if it has to be resolved again.
+     */
+    private static volatile Settings settings;
+
+    /**
+     * Incremented on every change of the default preferences. A snapshot is only published to {@link #settings} if no change happened while it was resolved. Guarded by {@link #settingsLock}.
+     */
+    private static int settingsGeneration;
+
+    private static final Object settingsLock = new Object();
+
+    /**
+     * Invalidates {@link #settings} on changes of the default preferences. A reference must be kept as {@link SharedPreferences} only keeps weak references to listeners.
+     */
+    private static final SharedPreferences.OnSharedPreferenceChangeListener settingsListener = (prefs, key) -> {
+        synchronized (settingsLock) {
+            settingsGeneration++;
+            settings = null;
+        }
+    };
+
+    /**
+     * The settings which are used on frequent paths, resolved from the default preferences.
+     */
+    private static class Settings {
+        private final int notificationPriority;
+        private final boolean notificationSound;
+        private final boolean runOnBoot;
+        private final int snoozeShortMinutes;
+        private final int snoozeLongMinutes;
+        private final boolean quickAddNotification;
+
+        private Settings(Context context) {
+            notificationPriority = Integer.valueOf(getStringPref(R.string.prefkey_priority, "0", context));
+            notificationSound = getBooleanPref(R.string.prefkey_enable_sound, false, context);
+            runOnBoot = getBooleanPref(R.string.prefkey_run_on_boot, false, context);
+            snoozeShortMinutes = Integer.valueOf(getStringPref(R.string.prefkey_snooze_short, "10", context));
+            snoozeLongMinutes = Integer.valueOf(getStringPref(R.string.prefkey_snooze_long, "60", context));
+            quickAddNotification = getBooleanPref(R.string.prefkey_quick_add_notification, false, context);
+        }
+    }
+
     static SharedPreferences getStatePrefs(Context context) {
-        return context.getSharedPreferences(PREFS_STATE, MODE_PRIVATE);
+        SharedPreferences prefs = statePrefs;
+        if (prefs == null) {
+            synchronized (Prefs.class) {
+                if (statePrefs == null) {
+                    statePrefs = context.getApplicationContext().getSharedPreferences(PREFS_STATE, MODE_PRIVATE);
+                }
+                prefs = statePrefs;
+            }
+        }
+        return prefs;
     }
 
-    public static boolean isRemindersUpdated(Context context) {
-        return getStatePrefs(context).getBoolean(PREF_STATE_REMINDERS_UPDATED, false);
+    private static SharedPreferences getDefaultPrefs(Context context) {
+        SharedPreferences prefs = defaultPrefs;
+        if (prefs == null) {
+            synchronized (Prefs.class) {
+                if (defaultPrefs == null) {
+                    defaultPrefs = PreferenceManager.getDefaultSharedPreferences(context.getApplicationContext());
+                    defaultPrefs.registerOnSharedPreferenceChangeListener(settingsListener);
+                }
+                prefs = defaultPrefs;
+            }
+        }
+        return prefs;
     }
 
-    public static void setRemindersUpdated(boolean b, Context context) {
-        getStatePrefs(context).edit().putBoolean(PREF_STATE_REMINDERS_UPDATED, b).commit();
+    /**
+     * Get the preference key stored in the given string resource.
+     *
+     * @param key
+     * @param context
+     * @return
+     */
+    private static String getKey(@StringRes int key, Context context) {
+        synchronized (keys) {
+            String k = keys.get(key);
+            if (k == null) {
+                k = context.getString(key);
+                keys.put(key, k);
+            }
+            return k;
+        }
+    }
+
+    private static Settings getSettings(Context context) {
+        Settings s = settings;
+        if (s == null) {
+            getDefaultPrefs(context); // make sure the listener is registered before the snapshot is taken
+            int generation;
+            synchronized (settingsLock) {
+                generation = settingsGeneration;
+            }
+            s = new Settings(context);
+            synchronized (settingsLock) {
+                // If the preferences changed in the meantime, the snapshot may be stale: use it for this call only
+                if (generation == settingsGeneration) {
+                    settings = s;
+                }
+            }
+        }
+        return s;
     }
 
     public static int getStoredRemindersListFormatVersion(Context context) {
         SharedPreferences prefs = getStatePrefs(context);
         if (!prefs.contains(PREF_STATE_REMINDERS_FORMAT_VERSION)) {
-            prefs.edit().putInt(PREF_STATE_REMINDERS_FORMAT_VERSION, Main.REMINDERS_LIST_FORMAT_VERSION).commit();
+            prefs.edit().putInt(PREF_STATE_REMINDERS_FORMAT_VERSION, Main.REMINDERS_LIST_FORMAT_VERSION).apply();
         }
         return prefs.getInt(PREF_STATE_REMINDERS_FORMAT_VERSION, Main.REMINDERS_LIST_FORMAT_VERSION);
     }
 
     /**
-     * Checks whether the welcome message for the current version has already been shown and updates the shown status to the current version.
+     * Checks whether the welcome message for the current version has already been shown. After showing it, {@link #setWelcomeMessageShown(Context, int)} has to be called with the returned version.
      *
      * @param context
-     * @return
+     * @return the current version if its welcome message has not been shown yet, -1 otherwise
      */
-    public static boolean checkWelcomeMessageShown(Context context) {
+    public static int getWelcomeMessageVersionToShow(Context context) {
         int lastShown = getStatePrefs(context).getInt(PREF_STATE_WELCOME_MESSAGE_SHOWN, -1);
         int currentVersion;
         try {
@@ -105,12 +234,11 @@ public class Prefs {
         } catch (PackageManager.NameNotFoundException e) {
             throw new RuntimeException("Cannot show welcome message", e);
         }
-        if (lastShown != currentVersion) {
-            getStatePrefs(context).edit().putInt(PREF_STATE_WELCOME_MESSAGE_SHOWN, currentVersion).apply();
-            return false;
-        } else {
-            return true;
-        }
+        return lastShown != currentVersion ? currentVersion : -1;
+    }
+
+    public static void setWelcomeMessageShown(Context context, int version) {
+        getStatePrefs(context).edit().putInt(PREF_STATE_WELCOME_MESSAGE_SHOWN, version).apply();
     }
 
     public static boolean isAddReminderDialogUsed(Context context) {
@@ -137,8 +265,68 @@ public class Prefs {
         getStatePrefs(context).edit().putBoolean(PREF_STATE_RUN_ON_BOOT_DONT_SHOW_AGAIN, true).apply();
     }
 
+    /**
+     * Remember the current time zone and return the one remembered before if it is different.
+     *
+     * @param context
+     * @return the previous time zone, null if it did not change or is not known
+     */
+    static synchronized TimeZone updateTimeZone(Context context) {
+        String current = TimeZone.getDefault().getID();
+        String previous = getStatePrefs(context).getString(PREF_STATE_TIME_ZONE, null);
+        if (current.equals(previous)) {
+            return null;
+        }
+        getStatePrefs(context).edit().putString(PREF_STATE_TIME_ZONE, current).apply();
+        return previous == null ? null : TimeZone.getTimeZone(previous);
+    }
+
     public static boolean isRunOnBoot(Context context) {
-        return getBooleanPref(R.string.prefkey_run_on_boot, false, context);
+        return getSettings(context).runOnBoot;
+    }
+
+    /**
+     * Get the priority for reminder notifications (one of the NotificationCompat.PRIORITY_* constants).
+     *
+     * @param context
+     * @return
+     */
+    public static int getNotificationPriority(Context context) {
+        return getSettings(context).notificationPriority;
+    }
+
+    public static boolean isNotificationSoundEnabled(Context context) {
+        return getSettings(context).notificationSound;
+    }
+
+    /**
+     * Get the duration of the first snooze action of notifications.
+     *
+     * @param context
+     * @return the duration in minutes
+     */
+    public static int getSnoozeShortMinutes(Context context) {
+        return getSettings(context).snoozeShortMinutes;
+    }
+
+    /**
+     * Get the duration of the second snooze action of notifications.
+     *
+     * @param context
+     * @return the duration in minutes
+     */
+    public static int getSnoozeLongMinutes(Context context) {
+        return getSettings(context).snoozeLongMinutes;
+    }
+
+    /**
+     * Whether the notification to add reminders by entering text into it should be shown permanently.
+     *
+     * @param context
+     * @return
+     */
+    public static boolean isQuickAddNotificationEnabled(Context context) {
+        return getSettings(context).quickAddNotification;
     }
 
     /**
@@ -148,9 +336,9 @@ public class Prefs {
      * @return if true, schedule on boot is not activated and it should be manually rescheduled at the start of the app
      */
     public static void checkRescheduleOnBoot(Context context) {
-        if (getBooleanPref(R.string.prefkey_run_on_boot, false, context)) {
+        if (isRunOnBoot(context)) {
             if (ContextCompat.checkSelfPermission(context.getApplicationContext(), Manifest.permission.RECEIVE_BOOT_COMPLETED) != PackageManager.PERMISSION_GRANTED) {
-                PreferenceManager.getDefaultSharedPreferences(context).edit().putBoolean(PREF_KEY_RUN_ON_BOOT, false).apply();
+                getDefaultPrefs(context).edit().putBoolean(PREF_KEY_RUN_ON_BOOT, false).apply();
                 BootReceiver.setBootReceiverEnabled(context, false);
             }
         } else {
@@ -172,7 +360,7 @@ public class Prefs {
         // If permission is now given, enable run on boot
         if (ContextCompat.checkSelfPermission(context.getApplicationContext(), Manifest.permission.RECEIVE_BOOT_COMPLETED) == PackageManager.PERMISSION_GRANTED) {
             BootReceiver.setBootReceiverEnabled(context, true);
-            PreferenceManager.getDefaultSharedPreferences(context).edit().putBoolean(PREF_KEY_RUN_ON_BOOT, true).apply();
+            getDefaultPrefs(context).edit().putBoolean(PREF_KEY_RUN_ON_BOOT, true).apply();
         } else {
             Toast.makeText(context, R.string.toast_permission_not_granted, Toast.LENGTH_LONG).show();
         }
@@ -187,7 +375,7 @@ public class Prefs {
      * @return
      */
     public static String getStringPref(@StringRes int key, String defValue, Context context) {
-        return PreferenceManager.getDefaultSharedPreferences(context).getString(context.getString(key), defValue);
+        return getDefaultPrefs(context).getString(getKey(key, context), defValue);
     }
 
     /**
@@ -199,6 +387,6 @@ public class Prefs {
      * @return
      */
     public static boolean getBooleanPref(@StringRes int key, boolean defValue, Context context) {
-        return PreferenceManager.getDefaultSharedPreferences(context).getBoolean(context.getString(key), defValue);
+        return getDefaultPrefs(context).getBoolean(getKey(key, context), defValue);
     }
 }
@@ -17,23 +17,51 @@
 
 package felixwiemuth.simplereminder;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationManagerCompat;
 import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
+import felixwiemuth.simplereminder.data.BackupFormat;
 import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.data.SearchIndex;
+import felixwiemuth.simplereminder.provider.RemindersContract;
+import felixwiemuth.simplereminder.sync.SyncEngine;
+import felixwiemuth.simplereminder.sync.SyncState;
+import felixwiemuth.simplereminder.sync.SyncStateStore;
+import felixwiemuth.simplereminder.sync.SyncTransport;
 import felixwiemuth.simplereminder.ui.reminderslist.RemindersListFragment;
+import felixwiemuth.simplereminder.ui.widget.RemindersWidgetProvider;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static felixwiemuth.simplereminder.Prefs.PREF_STATE_CURRENT_REMINDERS;
 import static felixwiemuth.simplereminder.Prefs.PREF_STATE_NEXTID;
+import static felixwiemuth.simplereminder.Prefs.PREF_STATE_SEARCH_INDEX;
+import static felixwiemuth.simplereminder.Prefs.PREF_STATE_SEARCH_INDEX_VERSION;
+import static felixwiemuth.simplereminder.Prefs.PREF_STATE_STATUS_LOG_GENERATION;
+import static felixwiemuth.simplereminder.Prefs.PREF_STATE_STORE_VERSION;
 
 /**
  * Manages current reminders by allowing to add and change reminders, scheduling notifications. Due reminders are handled by {@link ReminderService}.
@@ -48,26 +76,163 @@ public class ReminderManager {
         }
     }
 
+    private static final String STATUS_LOG_DIR = "statuslog";
+
+    private static final String STORE_FILE = "reminders";
+
     /**
-     * Lock guarding the state preferences ({@link Prefs#PREFS_STATE}). This reference being null is equivalent to the lock not being aquired.
+     * Lock guarding the reminder store, the state preferences ({@link Prefs#PREFS_STATE}), {@link #searchIndex} and the status log.
      */
-    private static ReentrantLock prefStateLock;
+    private static final ReentrantLock prefStateLock = new ReentrantLock();
 
     private static void lock() {
-        if (prefStateLock == null) {
-            prefStateLock = new ReentrantLock();
-        }
         prefStateLock.lock();
     }
 
     private static void unlock() {
-        if (prefStateLock != null) {
-            prefStateLock.unlock();
+        prefStateLock.unlock();
+        if (prefStateLock.isHeldByCurrentThread()) {
+            return;
+        }
+        // Apply the effects of committed changes outside of the lock
+        AlarmDispatcher dispatcher = alarmDispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatch();
+        }
+        Context widgetContext = widgetUpdateContext;
+        if (widgetContext != null) {
+            widgetUpdateContext = null; // cleared before updating, so that a snapshot written meanwhile is shown by this or a later update
+            RemindersWidgetProvider.update(widgetContext);
+        }
+    }
+
+    /**
+     * Set (to the application context) when the widget snapshot changed, so that the widgets are updated on {@link #unlock()}. The update involves calls to the system, which should not be done while holding the lock.
+     */
+    private static volatile Context widgetUpdateContext;
+
+    /**
+     * Changes of alarms and notifications resulting from changes of reminders, null if not created yet. Operations stage effects here instead of calling {@link ReminderService} directly.
+     */
+    private static volatile AlarmDispatcher alarmDispatcher;
+
+    /**
+     * Get the alarm dispatcher. Must be called while holding the lock.
+     *
+     * @param context
+     * @return
+     */
+    private static AlarmDispatcher getAlarmDispatcher(Context context) {
+        if (alarmDispatcher == null) {
+            Context appContext = context.getApplicationContext();
+            alarmDispatcher = new AlarmDispatcher(new AlarmDispatcher.Target() {
+                @Override
+                public void cancelNotification(int id) {
+                    NotificationManagerCompat.from(appContext).cancel(id);
+                }
+
+                @Override
+                public void scheduleAlarm(Reminder reminder) {
+                    ReminderService.scheduleReminder(appContext, reminder);
+                }
+
+                @Override
+                public void cancelAlarm(int id) {
+                    ReminderService.cancelAlarm(appContext, id);
+                }
+            });
+        }
+        return alarmDispatcher;
+    }
+
+    /**
+     * In-process copy of the store version ({@link ReminderStore.State#version}) of the last commit, -1 if not read yet.
+     */
+    private static volatile long storeVersion = -1;
+
+    /**
+     * Search index over the current reminders, null if not loaded yet. Kept up-to-date by all changes of reminders.
+     */
+    private static SearchIndex searchIndex;
+
+    /**
+     * Whether {@link #searchIndex} changed since it was last persisted.
+     */
+    private static boolean searchIndexChanged;
+
+    /**
+     * Log of status changes since the reminders were last saved, null if not created yet.
+     */
+    private static StatusLog statusLog;
+
+    /**
+     * Number of reminders of a backup saved together on import.
+     */
+    private static final int IMPORT_BATCH_SIZE = 100;
+
+    private static final String WIDGET_SNAPSHOT_FILE = "widget-snapshot";
+
+    private static WidgetSnapshot widgetSnapshot;
+
+    private static final String SYNC_DIR = "sync";
+
+    private static SyncStateStore syncStateStore;
+
+    /**
+     * State of the synchronization with other devices (see {@link #syncReminders(Context, SyncTransport)}), null if not loaded yet or if the reminders have never been synchronized.
+     */
+    private static SyncState syncState;
+
+    private static boolean syncStateLoaded;
+
+    /**
+     * Whether {@link #syncState} has changes which are neither saved nor recorded in the log of the {@link #syncStateStore}.
+     */
+    private static boolean syncStateUnsaved;
+
+    /**
+     * Lock allowing only one synchronization at a time.
+     */
+    private static final ReentrantLock syncLock = new ReentrantLock();
+
+    /**
+     * The store of the reminders, null if not loaded yet.
+     */
+    private static ReminderStore store;
+
+    /**
+     * Time after the first of a series of updates when they are saved together (if not saved earlier by another change).
+     */
+    private static final long COALESCE_WINDOW_MILLIS = 500;
+
+    /**
+     * Updated reminders which are not saved yet, null if not created yet. They are applied on top of the saved reminders when reading.
+     */
+    private static PendingUpdates pendingUpdates;
+
+    /**
+     * Get the pending updates. Must be called while holding the lock.
+     *
+     * @param context
+     * @return
+     */
+    private static PendingUpdates getPendingUpdates(Context context) {
+        if (pendingUpdates == null) {
+            Context appContext = context.getApplicationContext();
+            pendingUpdates = new PendingUpdates(Executors.newSingleThreadScheduledExecutor(), COALESCE_WINDOW_MILLIS, () -> {
+                try {
+                    savePendingUpdates(appContext);
+                } catch (RuntimeException e) {
+                    // Saved with the next change
+                    Log.e("ReminderManager", "Cannot save updated reminders.", e);
+                }
+            });
         }
+        return pendingUpdates;
     }
 
-    interface StatePrefEditOperation {
-        void edit(SharedPreferences prefs, SharedPreferences.Editor editor);
+    interface StoreEditOperation {
+        void edit(ReminderStore.State state);
     }
 
     interface RemindersEditOperation {
@@ -75,19 +240,58 @@ public class ReminderManager {
     }
 
     /**
-     * Edit the state preferences ({@link Prefs#PREFS_STATE}) exclusively and commit after the operation has successfully completed. This ensures that different threads editing these preferences do not overwrite their changes. Also sends a {@link RemindersListFragment#BROADCAST_REMINDERS_UPDATED} broadcast to inform about a change. Only change reminders via this method.
+     * Edit the saved reminders exclusively and save them after the operation has successfully completed. This ensures that different threads editing the reminders do not overwrite their changes. Increases the store version (see {@link #getStoreVersion(Context)}) and sends a {@link RemindersListFragment#BROADCAST_REMINDERS_UPDATED} broadcast to inform about a change. Only change reminders via this method or {@link #updateReminderState(Context, Reminder)}.
+     * The state passed to the operation includes the changes from the status log; a new (empty) status log is started when saving.
+     * Effects on alarms and notifications must be staged with {@link #getAlarmDispatcher(Context)}; they are applied after saving, when the lock is released. If the operation or saving fails, they are discarded, alarms are reconciled with the reminders which are still saved and a {@link RuntimeException} is thrown.
      *
      * @param context
      * @param operation
      */
-    @SuppressLint("ApplySharedPref")
-    private static void performExclusivelyOnStatePrefsAndCommit(Context context, StatePrefEditOperation operation) {
+    private static void performExclusivelyOnStoreAndCommit(Context context, StoreEditOperation operation) {
         lock();
         try {
-            SharedPreferences prefs = Prefs.getStatePrefs(context);
-            SharedPreferences.Editor editor = prefs.edit();
-            operation.edit(prefs, editor);
-            editor.commit();
+            ReminderStore store = getStore(context);
+            ReminderStore.State state = loadState(context); // includes pending updates, which are saved with this change
+            store.markPending();
+            try {
+                for (Reminder reminder : getPendingUpdates(context).getReschedules()) {
+                    rescheduleReminder(context, reminder);
+                }
+                operation.edit(state);
+                // Status changes only increase the version in memory
+                state.version = Math.max(store.getVersion(), storeVersion) + 1;
+                state.statusLogGeneration = store.getStatusLogGeneration() + 1;
+                saveSyncState(context); // in case recording a change failed, before the reminders, so that no saved change is missed by synchronization
+                store.write(state);
+            } catch (RuntimeException | IOException e) {
+                // The index might already reflect changes which are now not saved
+                searchIndex = null;
+                searchIndexChanged = false;
+                getAlarmDispatcher(context).discard();
+                // Alarms set by effects of earlier changes which have not been dispatched yet might also be lost
+                reconcileAlarms(context, state.reminders);
+                getAlarmDispatcher(context).commit();
+                store.clearPending();
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                throw new RuntimeException("Cannot save reminders.", e);
+            }
+            getAlarmDispatcher(context).commit();
+            store.clearPending();
+            getPendingUpdates(context).clear();
+            getStatusLog(context).deleteOtherGenerations(state.statusLogGeneration);
+            updateWidgetSnapshot(context, state.reminders);
+            storeVersion = state.version;
+            if (searchIndex != null) {
+                // The loaded index reflects all changes, so it corresponds to the new version. It can be rebuilt, so it is saved asynchronously.
+                SharedPreferences.Editor editor = Prefs.getStatePrefs(context).edit();
+                if (searchIndexChanged) {
+                    editor.putString(PREF_STATE_SEARCH_INDEX, searchIndex.toJson());
+                    searchIndexChanged = false;
+                }
+                editor.putLong(PREF_STATE_SEARCH_INDEX_VERSION, state.version).apply();
+            }
             notifyRemindersChangedBroadcast(context);
         } finally {
             unlock();
@@ -95,13 +299,135 @@ public class ReminderManager {
     }
 
     private static void updateRemindersList(Context context, RemindersEditOperation operation) {
-        performExclusivelyOnStatePrefsAndCommit(context, ((prefs, editor) -> {
-            updateRemindersListInEditor(editor, operation.update(getReminders(context)));
-        }));
+        performExclusivelyOnStoreAndCommit(context, state -> state.reminders = operation.update(state.reminders));
     }
 
-    private static void updateRemindersListInEditor(SharedPreferences.Editor editor, List<Reminder> reminders) {
-        editor.putString(PREF_STATE_CURRENT_REMINDERS, Reminder.toJson(reminders));
+    /**
+     * Add the given reminders to the pending updates (see {@link PendingUpdates}), replacing the reminders with the same IDs when saved. Readers see the updates immediately.
+     *
+     * @param context
+     * @param reminders
+     * @param reschedule
+     */
+    private static void addPendingUpdates(Context context, Iterable<Reminder> reminders, boolean reschedule) {
+        lock();
+        try {
+            for (Reminder reminder : reminders) {
+                getPendingUpdates(context).add(reminder, reschedule);
+                indexReminder(context, reminder);
+                recordSyncChange(context, reminder.getId());
+            }
+            storeVersion = getStoreVersion(context) + 1;
+            notifyRemindersChangedBroadcast(context);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Save pending updates of reminders now. Must be called at the end of a unit of work by components which might be stopped afterwards: by broadcast receivers when the last of their work is done, and by activities and fragments changing reminders when they are paused (the process might be killed after the user leaves the app). Updates made in between are saved together.
+     *
+     * @param context
+     */
+    public static void savePendingUpdates(Context context) {
+        lock();
+        try {
+            if (!getPendingUpdates(context).isEmpty()) {
+                performExclusivelyOnStoreAndCommit(context, state -> {
+                    // Only save the pending updates
+                });
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Get the reminder store, loading it if necessary. Reminders saved by previous versions in the state preferences are moved to the store.
+     *
+     * @param context
+     * @return
+     */
+    private static ReminderStore getStore(Context context) {
+        if (store == null) {
+            ReminderStore s = new ReminderStore(new File(context.getApplicationContext().getFilesDir(), STORE_FILE));
+            try {
+                if (!s.exists()) {
+                    migrateFromStatePrefs(context, s);
+                }
+                s.load();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot load reminders.", e);
+            }
+            store = s;
+        }
+        return store;
+    }
+
+    private static void migrateFromStatePrefs(Context context, ReminderStore store) throws IOException {
+        SharedPreferences prefs = Prefs.getStatePrefs(context);
+        if (!prefs.contains(PREF_STATE_CURRENT_REMINDERS)) {
+            return;
+        }
+        ReminderStore.State state = new ReminderStore.State();
+        state.reminders = Reminder.fromJson(prefs.getString(PREF_STATE_CURRENT_REMINDERS, "[]"));
+        state.nextId = prefs.getInt(PREF_STATE_NEXTID, 0);
+        state.version = prefs.getLong(PREF_STATE_STORE_VERSION, 0);
+        state.statusLogGeneration = prefs.getInt(PREF_STATE_STATUS_LOG_GENERATION, 0); // keeps the status log valid
+        store.write(state);
+        prefs.edit()
+                .remove(PREF_STATE_CURRENT_REMINDERS)
+                .remove(PREF_STATE_NEXTID)
+                .remove(PREF_STATE_STORE_VERSION)
+                .remove(PREF_STATE_STATUS_LOG_GENERATION)
+                .apply();
+    }
+
+    /**
+     * Reconcile alarms with the saved reminders if the last run of the app was interrupted while changing reminders or the saved reminders had to be recovered. Should be called once at startup (on a background thread).
+     *
+     * @param context
+     */
+    static void recoverIfNeeded(Context context) {
+        lock();
+        try {
+            ReminderStore store = getStore(context);
+            if (store.isPending() || store.wasRecovered()) {
+                Log.w("ReminderManager", "Previous changes of reminders were interrupted, reconciling alarms.");
+                reconcileAlarms(context, null);
+                getAlarmDispatcher(context).commit();
+                store.clearPending();
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Stage effects to make the alarms match the saved reminders: scheduled reminders get their alarm (replacing an existing one, due ones fire immediately), others have their alarm cancelled. Notifications are left as they are.
+     *
+     * @param context
+     * @param attempted reminders of a failed change, whose alarms are cancelled if they are not saved; may be null
+     */
+    private static void reconcileAlarms(Context context, List<Reminder> attempted) {
+        AlarmDispatcher alarms = getAlarmDispatcher(context);
+        List<Reminder> saved = loadReminders(context);
+        Set<Integer> savedIds = new HashSet<>();
+        for (Reminder reminder : saved) {
+            savedIds.add(reminder.getId());
+            if (reminder.getStatus() == Reminder.Status.SCHEDULED) {
+                alarms.schedule(reminder);
+            } else {
+                alarms.cancelAlarm(reminder.getId());
+            }
+        }
+        if (attempted != null) {
+            for (Reminder reminder : attempted) {
+                if (!savedIds.contains(reminder.getId())) {
+                    alarms.cancelAlarm(reminder.getId());
+                }
+            }
+        }
     }
 
     /**
@@ -111,18 +437,23 @@ public class ReminderManager {
      * @param reminderBuilder
      */
     public static void addReminder(Context context, Reminder.ReminderBuilder reminderBuilder) {
-        performExclusivelyOnStatePrefsAndCommit(context,
-                (prefs, editor) -> {
+        Reminder[] added = new Reminder[1];
+        performExclusivelyOnStoreAndCommit(context,
+                state -> {
                     // Get next reminder ID
-                    final int nextId = prefs.getInt(PREF_STATE_NEXTID, 0);
+                    final int nextId = state.nextId;
                     reminderBuilder.id(nextId);
                     Reminder reminder = reminderBuilder.build();
 
-                    editor.putInt(PREF_STATE_NEXTID, nextId + 2); // Reminder IDs may only be even
-                    addReminderToReminders(prefs, editor, reminder);
+                    state.nextId = nextId + 2; // Reminder IDs may only be even
+                    addReminderToReminders(state, reminder);
+                    indexReminder(context, reminder);
+                    recordSyncChange(context, nextId);
 
-                    ReminderService.scheduleReminder(context, reminder);
+                    getAlarmDispatcher(context).schedule(reminder);
+                    added[0] = reminder;
                 });
+        TextSuggestions.onReminderAdded(added[0]);
     }
 
     /**
@@ -132,122 +463,171 @@ public class ReminderManager {
      * @param reminder
      */
     private static void addReminder(Context context, Reminder reminder) {
-        performExclusivelyOnStatePrefsAndCommit(context,
-                (prefs, editor) -> {
-                    addReminderToReminders(prefs, editor, reminder);
-                    ReminderService.scheduleReminder(context, reminder);
+        performExclusivelyOnStoreAndCommit(context,
+                state -> {
+                    addReminderToReminders(state, reminder);
+                    indexReminder(context, reminder);
+                    recordSyncChange(context, reminder.getId());
+                    getAlarmDispatcher(context).schedule(reminder);
                 });
     }
 
     /**
      * Add the given reminder to the list of reminders. No reminder with the same ID must exist yet.
      *
-     * @param prefs
-     * @param editor
+     * @param state
      * @param reminder
      */
-    private static void addReminderToReminders(SharedPreferences prefs, SharedPreferences.Editor editor, Reminder reminder) {
-        List<Reminder> reminders = getRemindersFromPrefs(prefs);
-        for (Reminder r : reminders) {
+    private static void addReminderToReminders(ReminderStore.State state, Reminder reminder) {
+        for (Reminder r : state.reminders) {
             if (r.getId() == reminder.getId()) {
                 throw new RuntimeException("Cannot add reminder: reminder with id " + reminder.getId() + " already exists.");
             }
         }
-        reminders.add(reminder);
-        updateRemindersListInEditor(editor, reminders);
+        state.reminders.add(reminder);
     }
 
     /**
-     * Removes the first occurrence of a reminder with the ID of the given reminder on the iterator.
+     * Removes all occurrence of reminders with the given IDs.
      *
      * @param it
-     * @param reminder
+     * @param ids
      */
-    private static void removeReminderWithSameId(Iterator<Reminder> it, Reminder reminder) {
+    private static void removeRemindersById(Iterator<Reminder> it, Set<Integer> ids) {
         while (it.hasNext()) {
             Reminder r = it.next();
-            if (r.getId() == reminder.getId()) {
+            if (ids.contains(r.getId())) {
                 it.remove();
-                break;
             }
         }
     }
 
+    /**
+     * Replaces the reminder with the ID of the given reminder with the given reminder. The update is saved with later updates (see {@link PendingUpdates}), at the latest when {@link #savePendingUpdates(Context)} is called or shortly after.
+     *
+     * @param context
+     * @param reminder
+     * @param reschedule if true, checks whether the reminder should be rescheduled: If the given reminder's status is not {@link Reminder.Status#SCHEDULED} or its time is not in the future, a possible scheduled notification is cancelled. If the status is {@link Reminder.Status#SCHEDULED} and its time is in the future, a notification is scheduled.
+     */
+    public static void updateReminder(Context context, Reminder reminder, boolean reschedule) {
+        addPendingUpdates(context, Collections.singletonList(reminder), reschedule);
+    }
 
     /**
-     * Removes all occurrence of reminders with the IDs of the given reminders on the iterator.
+     * For each given reminder, replaces the existing reminder with the ID of the given reminder with the given one. The updates are saved with later updates (see {@link PendingUpdates}), at the latest when {@link #savePendingUpdates(Context)} is called or shortly after.
      *
-     * @param it
+     * @param context
      * @param reminders
+     * @param reschedule if true, checks whether the reminder should be rescheduled: If the given reminder's status is not {@link Reminder.Status#SCHEDULED} or its time is not in the future, a possible scheduled notification is cancelled. If the status is {@link Reminder.Status#SCHEDULED} and its time is in the future, a notification is scheduled.
      */
-    private static void removeRemindersWithSameId(Iterator<Reminder> it, Iterable<Reminder> reminders) {
-        Set<Integer> idsToRemove = new HashSet<>();
-        for (Reminder r : reminders) {
-            idsToRemove.add(r.getId());
-        }
-        while (it.hasNext()) {
-            Reminder r = it.next();
-            if (idsToRemove.contains(r.getId())) {
-                it.remove();
+    public static void updateReminders(Context context, Iterable<Reminder> reminders, boolean reschedule) {
+        addPendingUpdates(context, reminders, reschedule);
+    }
+
+    /**
+     * Save the status and date of the given reminder, which must be the only changes of the reminder. They are appended to the status log instead of saving all reminders, unless the log is due for compaction. Does not reschedule the reminder.
+     *
+     * @param context
+     * @param reminder
+     */
+    public static void updateReminderState(Context context, Reminder reminder) {
+        lock();
+        try {
+            recordSyncChange(context, reminder.getId());
+            Reminder pending = getPendingUpdates(context).get(reminder.getId());
+            if (pending != null) {
+                // Saved together with the pending update
+                pending.setStatus(reminder.getStatus());
+                pending.setDate(reminder.getDate());
+                storeVersion = getStoreVersion(context) + 1;
+                notifyRemindersChangedBroadcast(context);
+                return;
+            }
+            int generation = getStore(context).getStatusLogGeneration();
+            StatusLog log = getStatusLog(context);
+            if (log.size(generation) < StatusLog.MAX_RECORDS) {
+                try {
+                    log.append(generation, reminder);
+                    if (getWidgetSnapshot(context).isAffectedBy(reminder)) {
+                        updateWidgetSnapshot(context, loadReminders(context));
+                    }
+                    storeVersion = getStoreVersion(context) + 1;
+                    notifyRemindersChangedBroadcast(context);
+                    return;
+                } catch (IOException e) {
+                    Log.w("ReminderManager", "Cannot append to status log, saving all reminders instead.", e);
+                }
             }
+            // Saving the reminders includes the logged changes and starts a new log
+            updateReminder(context, reminder, false);
+        } finally {
+            unlock();
+        }
+    }
+
+    private static WidgetSnapshot getWidgetSnapshot(Context context) {
+        if (widgetSnapshot == null) {
+            widgetSnapshot = new WidgetSnapshot(getWidgetSnapshotFile(context));
         }
+        return widgetSnapshot;
     }
 
+    private static File getWidgetSnapshotFile(Context context) {
+        return new File(context.getApplicationContext().getFilesDir(), WIDGET_SNAPSHOT_FILE);
+    }
 
     /**
-     * Removes all occurrence of reminders with the given IDs.
+     * Update the widget snapshot to the given reminders and, if it changed, update the widgets after releasing the lock. Failures are only logged, as the snapshot is not essential.
      *
-     * @param it
-     * @param ids
+     * @param context
+     * @param reminders
      */
-    private static void removeRemindersById(Iterator<Reminder> it, Set<Integer> ids) {
-        while (it.hasNext()) {
-            Reminder r = it.next();
-            if (ids.contains(r.getId())) {
-                it.remove();
+    private static void updateWidgetSnapshot(Context context, List<Reminder> reminders) {
+        try {
+            if (getWidgetSnapshot(context).update(reminders)) {
+                widgetUpdateContext = context.getApplicationContext();
             }
+        } catch (IOException e) {
+            Log.w("ReminderManager", "Cannot update widget snapshot.", e);
         }
     }
 
     /**
-     * Replaces the reminder with the ID of the given reminder with the given reminder.
+     * Create the widget snapshot if it does not exist yet (e.g. after an update of the app). Loads all reminders in that case.
      *
      * @param context
-     * @param reminder
-     * @param reschedule if true, checks whether the reminder should be rescheduled: If the given reminder's status is not {@link Reminder.Status#SCHEDULED} or its time is not in the future, a possible scheduled notification is cancelled. If the status is {@link Reminder.Status#SCHEDULED} and its time is in the future, a notification is scheduled.
      */
-    public static void updateReminder(Context context, Reminder reminder, boolean reschedule) {
-        updateRemindersList(context, (currentReminders -> {
-            removeReminderWithSameId(currentReminders.iterator(), reminder);
-            currentReminders.add(reminder);
-
-            if (reschedule) {
-                rescheduleReminder(context, reminder);
+    public static void createWidgetSnapshotIfMissing(Context context) {
+        if (!getWidgetSnapshotFile(context).exists()) {
+            lock();
+            try {
+                updateWidgetSnapshot(context, loadReminders(context));
+            } finally {
+                unlock();
             }
-
-            return currentReminders;
-        }));
+        }
     }
 
     /**
-     * For each given reminder, replaces the existing reminder with the ID of the given reminder with the given one.
+     * Read the reminders to be shown by the widget. Does not load the reminders.
      *
      * @param context
-     * @param reminders
-     * @param reschedule if true, checks whether the reminder should be rescheduled: If the given reminder's status is not {@link Reminder.Status#SCHEDULED} or its time is not in the future, a possible scheduled notification is cancelled. If the status is {@link Reminder.Status#SCHEDULED} and its time is in the future, a notification is scheduled.
+     * @return the entries of the snapshot, null if not available
      */
-    public static void updateReminders(Context context, Iterable<Reminder> reminders, boolean reschedule) {
-        updateRemindersList(context, (currentReminders -> {
-            removeRemindersWithSameId(currentReminders.iterator(), reminders);
-            for (Reminder reminder : reminders) {
-                currentReminders.add(reminder);
-                if (reschedule) {
-                    rescheduleReminder(context, reminder);
-                }
-            }
+    public static List<WidgetSnapshot.Entry> readWidgetSnapshot(Context context) {
+        try {
+            return WidgetSnapshot.read(getWidgetSnapshotFile(context));
+        } catch (IOException e) {
+            Log.w("ReminderManager", "Cannot read widget snapshot.", e);
+            return null;
+        }
+    }
 
-            return currentReminders;
-        }));
+    private static StatusLog getStatusLog(Context context) {
+        if (statusLog == null) {
+            statusLog = new StatusLog(new File(context.getApplicationContext().getFilesDir(), STATUS_LOG_DIR));
+        }
+        return statusLog;
     }
 
     @FunctionalInterface
@@ -263,31 +643,29 @@ public class ReminderManager {
      * @param ids
      */
     public static void updateReminders(Context context, ReminderTransformation transformation, Set<Integer> ids, boolean reschedule) {
-        updateRemindersList(context, (currentReminders -> {
-            for (Reminder reminder : currentReminders) {
+        lock();
+        try {
+            List<Reminder> updated = new ArrayList<>();
+            for (Reminder reminder : loadReminders(context)) {
                 if (ids.contains(reminder.getId())) {
                     transformation.run(reminder);
-                    if (reschedule) {
-                        rescheduleReminder(context, reminder);
-                    }
+                    updated.add(reminder);
                 }
             }
-            return currentReminders;
-        }));
+            addPendingUpdates(context, updated, reschedule);
+        } finally {
+            unlock();
+        }
     }
 
     /**
-     * Cancel potential existing scheduling and notification for the given reminder and reschedule it if its status is {@link Reminder.Status#SCHEDULED} and its time is in the future.
+     * Cancel potential existing scheduling and notification for the given reminder and reschedule it if its status is {@link Reminder.Status#SCHEDULED} and its time is in the future. Applied after the current operation has been saved.
      *
      * @param context
      * @param reminder
      */
     private static void rescheduleReminder(Context context, Reminder reminder) {
-        ReminderService.cancelReminder(context, reminder.getId());
-        boolean isFuture = reminder.getDate().getTime() > System.currentTimeMillis();
-        if (reminder.getStatus() == Reminder.Status.SCHEDULED && isFuture) {
-            ReminderService.scheduleReminder(context, reminder);
-        }
+        getAlarmDispatcher(context).reschedule(reminder);
     }
 
     /**
@@ -309,6 +687,48 @@ public class ReminderManager {
         }
     }
 
+    /**
+     * Update reminders after the time zone or the system clock changed. Only reminders which are affected are changed and rescheduled: recurring reminders keep their local time of day in a new time zone (see {@link felixwiemuth.simplereminder.data.Recurrence#adjustToTimeZone(Date, TimeZone, TimeZone)}), and scheduled reminders which are due at the new time are shown. Alarms of other reminders remain valid, as they are set for absolute times.
+     *
+     * @param context
+     * @param previousTimeZone the time zone before the change, null if it did not change
+     */
+    public static void updateRemindersAfterClockChange(Context context, @Nullable TimeZone previousTimeZone) {
+        Date now = new Date();
+        TimeZone timeZone = TimeZone.getDefault();
+        List<Reminder> moved = new ArrayList<>();
+        List<Reminder> due = new ArrayList<>();
+        lock();
+        try {
+            for (Reminder reminder : loadReminders(context)) {
+                if (reminder.getStatus() != Reminder.Status.SCHEDULED) {
+                    continue;
+                }
+                if (previousTimeZone != null && reminder.isRecurring()) {
+                    Date adjusted = reminder.getRecurrence().adjustToTimeZone(reminder.getDate(), previousTimeZone, timeZone);
+                    if (!adjusted.equals(reminder.getDate())) {
+                        reminder.setDate(adjusted);
+                        if (adjusted.after(now)) {
+                            moved.add(reminder);
+                        }
+                    }
+                }
+                if (!reminder.getDate().after(now)) {
+                    due.add(reminder);
+                }
+            }
+            if (!moved.isEmpty()) {
+                updateReminders(context, moved, true);
+            }
+        } finally {
+            unlock();
+        }
+        for (Reminder reminder : due) {
+            ReminderService.cancelAlarm(context, reminder.getId()); // the alarm might still fire for the new time
+            ReminderService.showReminder(context, reminder);
+        }
+    }
+
 //    public static void removeReminder(Context context, Reminder reminder) {
 //        updateRemindersList(context, (reminders -> {
 //            removeReminderWithSameId(reminders.iterator(), reminder);
@@ -344,24 +764,377 @@ public class ReminderManager {
         updateRemindersList(context, (currentReminders -> {
             removeRemindersById(currentReminders.iterator(), ids);
             for (Integer id : ids) {
-                ReminderService.cancelReminder(context, id);
+                unindexReminder(context, id);
+                recordSyncRemoval(context, id);
+                getAlarmDispatcher(context).cancel(id);
             }
             return currentReminders;
         }));
     }
 
     /**
-     * Set the {@link Prefs#setRemindersUpdated(boolean, Context)} flag and send a local broadcast indicating that the list of reminders changed.
+     * Write a backup of all reminders (see {@link BackupFormat}).
+     * <p>
+     * Only the saved JSON and the changes not contained in it yet are taken while holding the lock. The reminders are then decoded and written one at a time, so that the lock is not held while writing and the whole list is never decoded at once.
+     *
+     * @param context
+     * @param channel
+     * @throws IOException
+     */
+    public static void exportReminders(Context context, WritableByteChannel channel) throws IOException {
+        String json;
+        Map<Integer, StatusLog.Entry> entries;
+        Map<Integer, Reminder> pending = new LinkedHashMap<>();
+        lock();
+        try {
+            ReminderStore store = getStore(context);
+            json = store.getJson();
+            entries = getStatusLog(context).read(store.getStatusLogGeneration());
+            for (Reminder reminder : getPendingUpdates(context).getAll()) {
+                pending.put(reminder.getId(), reminder.copy());
+            }
+        } finally {
+            unlock();
+        }
+        // Apply the changes like loadState(Context)
+        BackupFormat.Writer writer = new BackupFormat.Writer(channel);
+        ReminderStore.readReminders(json, reminder -> {
+            Reminder updated = pending.remove(reminder.getId());
+            if (updated == null) {
+                updated = reminder;
+                StatusLog.Entry entry = entries.get(reminder.getId());
+                if (entry != null) {
+                    updated.setStatus(entry.status);
+                    updated.setDate(entry.date);
+                }
+            }
+            writer.write(updated);
+        });
+        for (Reminder reminder : pending.values()) {
+            writer.write(reminder);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Import the reminders of a backup (see {@link BackupFormat}). Imported reminders replace existing reminders with the same ID, others are added. The backup is read and saved in batches of {@link #IMPORT_BATCH_SIZE} reminders.
+     *
+     * @param context
+     * @param channel
+     * @return the number of imported reminders
+     * @throws BackupFormat.InvalidBackupException if the backup is invalid; the reminders before the invalid line have been imported
+     * @throws IOException
+     */
+    public static int importReminders(Context context, ReadableByteChannel channel) throws IOException {
+        return BackupFormat.read(channel, IMPORT_BATCH_SIZE, batch -> mergeReminders(context, batch));
+    }
+
+    private static void mergeReminders(Context context, List<Reminder> reminders) {
+        List<Reminder> added = new ArrayList<>();
+        performExclusivelyOnStoreAndCommit(context, state -> {
+            Map<Integer, Reminder> imported = new LinkedHashMap<>();
+            for (Reminder reminder : reminders) {
+                imported.put(reminder.getId(), reminder);
+            }
+            for (ListIterator<Reminder> it = state.reminders.listIterator(); it.hasNext(); ) {
+                Reminder reminder = imported.remove(it.next().getId());
+                if (reminder != null) {
+                    it.set(reminder);
+                }
+            }
+            for (Reminder reminder : imported.values()) {
+                state.reminders.add(reminder);
+                added.add(reminder);
+            }
+            for (Reminder reminder : reminders) {
+                indexReminder(context, reminder);
+                recordSyncChange(context, reminder.getId());
+                rescheduleReminder(context, reminder);
+                if (reminder.getId() >= state.nextId) {
+                    state.nextId = reminder.getId() + 2; // Reminder IDs may only be even
+                }
+            }
+        });
+        for (Reminder reminder : added) {
+            TextSuggestions.onReminderAdded(reminder);
+        }
+    }
+
+    /**
+     * Get the search index, loading it if necessary. If no up-to-date index is stored, it is rebuilt from the reminders.
+     *
+     * @param context
+     * @return
+     */
+    private static SearchIndex getSearchIndex(Context context) {
+        lock();
+        try {
+            if (searchIndex == null) {
+                SharedPreferences prefs = Prefs.getStatePrefs(context);
+                String json = prefs.getString(PREF_STATE_SEARCH_INDEX, null);
+                if (json != null && prefs.getLong(PREF_STATE_SEARCH_INDEX_VERSION, -1) == getStore(context).getVersion()) {
+                    searchIndex = SearchIndex.fromJson(json);
+                } else {
+                    searchIndex = SearchIndex.of(loadReminders(context));
+                    searchIndexChanged = true; // persisted with the next change
+                }
+            }
+            return searchIndex;
+        } finally {
+            unlock();
+        }
+    }
+
+    private static void indexReminder(Context context, Reminder reminder) {
+        if (getSearchIndex(context).put(reminder.getId(), reminder.getText())) {
+            searchIndexChanged = true;
+        }
+    }
+
+    private static void unindexReminder(Context context, int id) {
+        if (getSearchIndex(context).remove(id)) {
+            searchIndexChanged = true;
+        }
+    }
+
+    /**
+     * Find the reminders whose text contains, for every word of the query, a word starting with it (ignoring case and diacritics).
+     *
+     * @param context
+     * @param query
+     * @return the IDs of the matching reminders
+     */
+    public static Set<Integer> searchReminders(Context context, String query) {
+        return getSearchIndex(context).search(query);
+    }
+
+    /**
+     * Get the sync state, loading it if necessary. Must be called while holding the lock.
+     *
+     * @param context
+     * @return the state or null if the reminders have never been synchronized
+     */
+    private static SyncState getSyncState(Context context) {
+        if (!syncStateLoaded) {
+            try {
+                syncState = getSyncStateStore(context).load();
+            } catch (IOException e) {
+                // The next synchronization starts over with a new state
+                Log.e("ReminderManager", "Cannot load sync state.", e);
+                syncState = null;
+            }
+            syncStateLoaded = true;
+        }
+        return syncState;
+    }
+
+    private static SyncStateStore getSyncStateStore(Context context) {
+        if (syncStateStore == null) {
+            syncStateStore = new SyncStateStore(new File(context.getApplicationContext().getFilesDir(), SYNC_DIR));
+        }
+        return syncStateStore;
+    }
+
+    /**
+     * Save the sync state if it has changes which are not saved otherwise. Failures are only logged, the state is then saved with the next change.
+     *
+     * @param context
+     */
+    private static void saveSyncState(Context context) {
+        if (syncStateUnsaved) {
+            try {
+                getSyncStateStore(context).save(syncState);
+                syncStateUnsaved = false;
+            } catch (IOException e) {
+                Log.w("ReminderManager", "Cannot save sync state.", e);
+            }
+        }
+    }
+
+    /**
+     * Record that the reminder with the given ID was added or changed, so that it is sent with the next synchronization. Does nothing if the reminders are not synchronized. Must be called while holding the lock, before the change is saved.
+     *
+     * @param context
+     * @param id
+     */
+    private static void recordSyncChange(Context context, int id) {
+        SyncState state = getSyncState(context);
+        if (state != null) {
+            try {
+                getSyncStateStore(context).recordChange(state, id);
+            } catch (IOException e) {
+                Log.w("ReminderManager", "Cannot record change for synchronization, saving sync state instead.", e);
+                syncStateUnsaved = true;
+                saveSyncState(context);
+            }
+        }
+    }
+
+    /**
+     * Record that the reminder with the given ID was removed, see {@link #recordSyncChange(Context, int)}.
+     *
+     * @param context
+     * @param id
+     */
+    private static void recordSyncRemoval(Context context, int id) {
+        SyncState state = getSyncState(context);
+        if (state != null) {
+            try {
+                getSyncStateStore(context).recordRemoval(state, id);
+            } catch (IOException e) {
+                Log.w("ReminderManager", "Cannot record removal for synchronization, saving sync state instead.", e);
+                syncStateUnsaved = true;
+                saveSyncState(context);
+            }
+        }
+    }
+
+    /**
+     * Get the ID of this device for synchronization. Enables recording changes of reminders for synchronization if not done yet, so that the first synchronization sends all current reminders.
+     *
+     * @param context
+     * @return
+     */
+    public static String getSyncDeviceId(Context context) {
+        lock();
+        try {
+            SyncState state = getSyncState(context);
+            if (state == null) {
+                state = SyncState.create(UUID.randomUUID().toString());
+                for (Reminder reminder : loadReminders(context)) {
+                    state.onChanged(reminder.getId());
+                }
+                syncState = state;
+                syncStateUnsaved = true;
+                saveSyncState(context);
+            }
+            return state.getDeviceId();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Synchronize the reminders with other devices via the given transport (see {@link SyncEngine}). Only reminders changed since the last synchronization are exchanged. The transport is used without holding the lock on the reminders, so other changes are only blocked while received changes are applied. Synchronizations run one at a time. Must not be called on the main thread.
+     *
+     * @param context
+     * @param transport
+     * @return
+     * @throws IOException if the transport fails; received changes which have been applied are kept, unsent changes are sent with the next synchronization
+     */
+    public static SyncEngine.Result syncReminders(Context context, SyncTransport transport) throws IOException {
+        syncLock.lock();
+        try {
+            getSyncDeviceId(context);
+            return SyncEngine.sync(syncState, new SyncEngine.LocalStore() {
+                @Override
+                public Map<Integer, Reminder> getReminders(Set<Integer> ids) {
+                    Map<Integer, Reminder> reminders = new HashMap<>();
+                    for (Reminder reminder : loadReminders(context)) {
+                        if (ids.contains(reminder.getId())) {
+                            reminders.put(reminder.getId(), reminder);
+                        }
+                    }
+                    return reminders;
+                }
+
+                @Override
+                public int[] apply(List<Reminder> updated, List<Reminder> added, Set<Integer> removed) {
+                    int[] ids = new int[added.size()];
+                    List<Reminder> addedReminders = new ArrayList<>(added.size());
+                    performExclusivelyOnStoreAndCommit(context, state -> {
+                        Map<Integer, Reminder> updates = new HashMap<>();
+                        for (Reminder reminder : updated) {
+                            updates.put(reminder.getId(), reminder);
+                        }
+                        for (ListIterator<Reminder> it = state.reminders.listIterator(); it.hasNext(); ) {
+                            int id = it.next().getId();
+                            Reminder reminder = updates.get(id);
+                            if (reminder != null) {
+                                it.set(reminder);
+                            } else if (removed.contains(id)) {
+                                it.remove();
+                            }
+                        }
+                        for (Reminder reminder : updated) {
+                            indexReminder(context, reminder);
+                            rescheduleReminder(context, reminder);
+                        }
+                        for (Integer id : removed) {
+                            unindexReminder(context, id);
+                            getAlarmDispatcher(context).cancel(id);
+                        }
+                        for (int i = 0; i < ids.length; i++) {
+                            ids[i] = state.nextId;
+                            state.nextId += 2; // Reminder IDs may only be even
+                            Reminder reminder = added.get(i).copyWithId(ids[i]);
+                            state.reminders.add(reminder);
+                            indexReminder(context, reminder);
+                            rescheduleReminder(context, reminder);
+                            addedReminders.add(reminder);
+                        }
+                    });
+                    for (Reminder reminder : addedReminders) {
+                        TextSuggestions.onReminderAdded(reminder);
+                    }
+                    return ids;
+                }
+
+                @Override
+                public void runExclusively(Runnable operation) {
+                    lock();
+                    try {
+                        operation.run();
+                        // The changes made by synchronization are only saved with the whole state
+                        syncStateUnsaved = true;
+                        saveSyncState(context);
+                    } finally {
+                        unlock();
+                    }
+                }
+            }, transport);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Send a local broadcast indicating that the list of reminders changed and notify observers of {@link RemindersContract.Reminders#CONTENT_URI}.
      *
      * @param context
      */
     private static void notifyRemindersChangedBroadcast(Context context) {
-        Prefs.setRemindersUpdated(true, context);
         LocalBroadcastManager.getInstance(context).sendBroadcast(RemindersListFragment.getRemindersUpdatedBroadcastIntent());
+        context.getContentResolver().notifyChange(RemindersContract.Reminders.CONTENT_URI, null);
+    }
+
+    /**
+     * Get the version of the stored reminders. The version increases with every change of the reminders, so comparing it to the version read before loading the reminders tells whether they are outdated.
+     *
+     * @param context
+     * @return
+     */
+    public static long getStoreVersion(Context context) {
+        long version = storeVersion;
+        if (version < 0) {
+            lock();
+            try {
+                version = Math.max(getStore(context).getVersion(), storeVersion);
+                storeVersion = version;
+            } finally {
+                unlock();
+            }
+        }
+        return version;
     }
 
     public static List<Reminder> getReminders(Context context) {
-        return getRemindersFromPrefs(Prefs.getStatePrefs(context));
+        lock(); // the reminders and the status log must be read consistently
+        try {
+            return loadReminders(context);
+        } finally {
+            unlock();
+        }
     }
 
     /**
@@ -382,13 +1155,49 @@ public class ReminderManager {
         throw new ReminderNotFoundException("Reminder with id " + id + " does not exist.");
     }
 
+    private static List<Reminder> loadReminders(Context context) {
+        return loadState(context).reminders;
+    }
+
     /**
-     * Returns an immutable list of the saved reminders.
+     * Returns a copy of the saved state with the changes from the status log applied. Must be called while holding the lock.
      *
-     * @param prefs
+     * @param context
      * @return
      */
-    public static List<Reminder> getRemindersFromPrefs(SharedPreferences prefs) {
-        return Reminder.fromJson(prefs.getString(PREF_STATE_CURRENT_REMINDERS, "[]"));
+    private static ReminderStore.State loadState(Context context) {
+        ReminderStore.State state = getStore(context).read();
+        Map<Integer, StatusLog.Entry> entries;
+        try {
+            entries = getStatusLog(context).read(state.statusLogGeneration);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read status log.", e);
+        }
+        if (!entries.isEmpty()) {
+            for (Reminder reminder : state.reminders) {
+                StatusLog.Entry entry = entries.get(reminder.getId());
+                if (entry != null) {
+                    reminder.setStatus(entry.status);
+                    reminder.setDate(entry.date);
+                }
+            }
+        }
+        PendingUpdates updates = getPendingUpdates(context);
+        if (!updates.isEmpty()) {
+            Set<Integer> applied = new HashSet<>();
+            for (ListIterator<Reminder> it = state.reminders.listIterator(); it.hasNext(); ) {
+                Reminder pending = updates.get(it.next().getId());
+                if (pending != null) {
+                    it.set(pending.copy());
+                    applied.add(pending.getId());
+                }
+            }
+            for (Reminder pending : updates.getAll()) {
+                if (!applied.contains(pending.getId())) {
+                    state.reminders.add(pending.copy());
+                }
+            }
+        }
+        return state;
     }
 }
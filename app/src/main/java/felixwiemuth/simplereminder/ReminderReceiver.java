@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.app.RemoteInput;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.util.EnumUtil;
+import felixwiemuth.simplereminder.util.KeyedWorkQueue;
+
+/**
+ * Receives the intents created by {@link ReminderService#intentBuilder()} (from alarms and notifications) and hands them to a work queue which runs the corresponding {@link ReminderService.Action}s in the background.
+ * Actions for different reminders are processed concurrently, actions for the same reminder one after another. Repeated intents for the same reminder and action (with the same input) which directly follow each other while pending are only processed once. Actions of the quick add notification, which do not refer to a reminder, use the ID -1.
+ *
+ * @author Felix Wiemuth
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+
+    /**
+     * Number of threads processing reminder actions. Changes of the reminders list are serialized by {@link ReminderManager} anyway, so more threads would not help.
+     */
+    private static final int WORKER_THREADS = 2;
+
+    private static KeyedWorkQueue<Integer, Task> workQueue;
+
+    /**
+     * Number of tasks submitted to {@link #workQueue} which have not finished yet. When the last one finishes, the updates of all of them are saved together. Guarded by the class lock.
+     */
+    private static int unfinishedTasks;
+
+    /**
+     * An action to be run on a reminder, with the text entered into the notification if the action needs input.
+     */
+    private static final class Task {
+        private final ReminderService.Action action;
+        private final String input;
+
+        private Task(ReminderService.Action action, String input) {
+            this.action = action;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Task)) {
+                return false;
+            }
+            Task task = (Task) o;
+            return action == task.action && (input == null ? task.input == null : input.equals(task.input));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * action.hashCode() + (input == null ? 0 : input.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return action.toString();
+        }
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ReminderService.ACTION_START.equals(intent.getAction())) {
+            Log.w("ReminderReceiver", "Received unexpected intent: " + intent);
+            return;
+        }
+        if (!intent.hasExtra(ReminderService.EXTRA_INT_ID)) {
+            throw new IllegalArgumentException("ReminderReceiver called without reminder ID extra.");
+        }
+        int id = intent.getIntExtra(ReminderService.EXTRA_INT_ID, -1);
+        ReminderService.Action action = EnumUtil.deserialize(ReminderService.Action.class).from(intent);
+        String input = null;
+        if (action.needsInput()) {
+            Bundle results = RemoteInput.getResultsFromIntent(intent);
+            CharSequence text = results == null ? null : results.getCharSequence(ReminderService.EXTRA_INPUT);
+            // Empty input is passed on as well, as the notification has to be posted again to stop showing the input as being sent
+            input = text == null ? "" : text.toString();
+        }
+        PendingResult pendingResult = goAsync(); // keep the process alive until the action is processed
+        synchronized (ReminderReceiver.class) {
+            unfinishedTasks++; // before submitting, as the task might finish right away
+        }
+        if (!getWorkQueue(context).submit(id, new Task(action, input), pendingResult::finish)) {
+            taskFinished(context); // merged with a pending task
+        }
+    }
+
+    /**
+     * Count a task as finished, and save the pending updates of reminders if it was the last unfinished one. Is run before the broadcast of the task is finished, so that the process is kept alive until the updates are saved.
+     *
+     * @param context
+     */
+    private static void taskFinished(Context context) {
+        boolean last;
+        synchronized (ReminderReceiver.class) {
+            last = --unfinishedTasks == 0;
+        }
+        if (last) {
+            ReminderManager.savePendingUpdates(context);
+        }
+    }
+
+    private static synchronized KeyedWorkQueue<Integer, Task> getWorkQueue(Context context) {
+        if (workQueue == null) {
+            Context appContext = context.getApplicationContext();
+            ExecutorService executor = Executors.newFixedThreadPool(WORKER_THREADS);
+            workQueue = new KeyedWorkQueue<>(executor, (id, task) -> {
+                try {
+                    runAction(appContext, id, task);
+                } finally {
+                    taskFinished(appContext);
+                }
+            });
+        }
+        return workQueue;
+    }
+
+    private static void runAction(Context context, int id, Task task) {
+        Reminder reminder = null;
+        if (id >= 0) {
+            try {
+                reminder = ReminderManager.getReminder(context, id);
+            } catch (ReminderManager.ReminderNotFoundException e) {
+                // The reminder might have been deleted after the intent was sent
+                Log.w("ReminderReceiver", "Action " + task + " for non-existing reminder " + id + " ignored.");
+                NotificationManagerCompat.from(context).cancel(id); // a notification waiting for its input to be processed would otherwise remain
+                return;
+            }
+        }
+        if (task.action.needsInput()) {
+            if (task.input.trim().isEmpty()) {
+                Log.w("ReminderReceiver", "Action " + task + " without input ignored.");
+                ReminderService.restoreInputNotification(context, reminder);
+                return;
+            }
+            task.action.run(context, reminder, task.input);
+        } else {
+            task.action.run(context, reminder);
+        }
+    }
+}
@@ -18,41 +18,64 @@
 package felixwiemuth.simplereminder;
 
 import android.app.AlarmManager;
-import android.app.IntentService;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
-import android.net.Uri;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.widget.Toast;
 
 import androidx.annotation.Nullable;
-import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
-import java.util.Arrays;
 import java.util.Date;
 
 import felixwiemuth.simplereminder.data.Reminder;
-import felixwiemuth.simplereminder.ui.AddReminderDialogActivity;
+import felixwiemuth.simplereminder.ui.util.UIUtils;
 import felixwiemuth.simplereminder.util.DateTimeUtil;
 import felixwiemuth.simplereminder.util.EnumUtil;
 import felixwiemuth.simplereminder.util.ImplementationError;
+import felixwiemuth.simplereminder.util.QuickAddParser;
 import lombok.Builder;
 
 /**
- * Responsible for reminder scheduling and notifications. Handles scheduled reminders when they are due. May only be started with an intent created via the provided intent builder ({@link #intentBuilder()}).
+ * Responsible for reminder scheduling and notifications. Defines the {@link Action}s to be performed on reminders when they are due or the user interacts with their notification. Actions are triggered by intents created via the provided intent builder ({@link #intentBuilder()}), which are delivered to {@link ReminderReceiver}.
  *
  * @author Felix Wiemuth
  */
-public class ReminderService extends IntentService {
+public class ReminderService {
     public static final String CHANNEL_REMINDER = "Reminder";
+    public static final String CHANNEL_QUICK_ADD = "QuickAdd";
     public static final String EXTRA_INT_ID = "felixwiemuth.simplereminder.ReminderService.extra.ID";
+    /**
+     * Key of the text entered into a notification for an action which needs input (see {@link Action#needsInput()}).
+     */
+    public static final String EXTRA_INPUT = "felixwiemuth.simplereminder.ReminderService.extra.INPUT";
     public static final String ACTION_START = "felixwiemuth.simplereminder.ReminderService.action.START";
 
-    private static Uri defaultSound;
+    /**
+     * ID of the notification to add reminders. Reminder notifications use the (non-negative) reminder IDs.
+     */
+    private static final int NOTIFICATION_ID_QUICK_ADD = -1;
+
+    /**
+     * Minutes from now of a reminder added from a notification if the input contains no time.
+     */
+    private static final int DEFAULT_INPUT_MINUTES = 60;
+
+    /**
+     * Offset for the request codes of pending intents for the snooze actions, to keep them separate from those of {@link Action#NOTIFY} and {@link Action#MARK_DONE}.
+     */
+    private static final int OFFSET_REQUEST_CODE_SNOOZE = 2000000;
+
+    /**
+     * Offset for the request codes of pending intents for {@link Action#ADD_FROM_INPUT}. The quick add notification uses the ID -1.
+     */
+    private static final int OFFSET_REQUEST_CODE_INPUT = 3000000;
 
     /**
      * Specifies the arguments to call this service.
@@ -79,14 +102,14 @@ public class ReminderService extends IntentService {
              * @throws IncompleteArgumentsException if not all fields have been set
              */
             public Intent build(Context context) throws IncompleteArgumentsException {
-                Intent intent = new Intent(context, ReminderService.class);
+                Intent intent = new Intent(context, ReminderReceiver.class);
 
-                if (id < 0) {
-                    throw new IncompleteArgumentsException("Id not specified or not valid (must be >=0).");
-                }
                 if (action == null) {
                     throw new IncompleteArgumentsException("Action not specified.");
                 }
+                if (id < 0 && !action.needsInput()) {
+                    throw new IncompleteArgumentsException("Id not specified or not valid (must be >=0).");
+                }
 
                 intent.putExtra(ReminderService.EXTRA_INT_ID, id);
                 // Note: Setting an action seems to prevent extras being removed from intents, see https://stackoverflow.com/questions/15343840/intent-extras-missing-when-activity-started.
@@ -98,7 +121,7 @@ public class ReminderService extends IntentService {
             }
 
             /**
-             * Create a pending intent that will start the service. Sets correct request code.
+             * Create a pending intent that will send the intent to {@link ReminderReceiver}. Sets correct request code.
              *
              * @param context
              * @return
@@ -113,10 +136,19 @@ public class ReminderService extends IntentService {
                     case MARK_DONE:
                         requestCode = id + 1;
                         break;
+                    case SNOOZE_SHORT:
+                        requestCode = OFFSET_REQUEST_CODE_SNOOZE + id;
+                        break;
+                    case SNOOZE_LONG:
+                        requestCode = OFFSET_REQUEST_CODE_SNOOZE + id + 1;
+                        break;
+                    case ADD_FROM_INPUT:
+                        requestCode = OFFSET_REQUEST_CODE_INPUT + id;
+                        break;
                     default:
                         throw new ImplementationError("Unknown action.");
                 }
-                return PendingIntent.getService(context, requestCode, build(context), 0);
+                return PendingIntent.getBroadcast(context, requestCode, build(context), 0);
             }
         }
     }
@@ -133,18 +165,23 @@ public class ReminderService extends IntentService {
      * @return
      */
     public static PendingIntent getCancelNotifyIntent(Context context, int id) {
-        // Note: This intent is only used to be passed to AlarmManager.cancel(...), so it shouldn't start the service.
-        return PendingIntent.getService(context, id, new Intent(context, ReminderService.class), 0); // must use equal intent and same request code as when scheduled
-    }
-
-    public ReminderService() {
-        super("SimpleReminder Reminder Service");
+        // Note: This intent is only used to be passed to AlarmManager.cancel(...), so it shouldn't be sent.
+        return PendingIntent.getBroadcast(context, id, new Intent(context, ReminderReceiver.class).setAction(ACTION_START), 0); // must use equal intent (extras are not compared) and same request code as when scheduled
     }
 
     interface ReminderAction {
         void run(Context context, Reminder reminder);
     }
 
+    interface InputAction {
+        /**
+         * @param context
+         * @param reminder the reminder whose notification the input was entered into, null for the quick add notification
+         * @param input
+         */
+        void run(Context context, @Nullable Reminder reminder, String input);
+    }
+
     enum Action {
         NOTIFY(
                 (context, reminder) -> {
@@ -153,52 +190,144 @@ public class ReminderService extends IntentService {
         ),
         MARK_DONE(
                 (context, reminder) -> {
+                    if (reminder.isRecurring() && reminder.getStatus() == Reminder.Status.SCHEDULED) {
+                        return; // The notification of a past occurrence was dismissed, the next one stays scheduled
+                    }
                     reminder.setStatus(Reminder.Status.DONE);
-                    ReminderManager.updateReminder(context, reminder, false);
+                    ReminderManager.updateReminderState(context, reminder);
+                }
+        ),
+        SNOOZE_SHORT(
+                (context, reminder) -> {
+                    snoozeReminder(context, reminder, Prefs.getSnoozeShortMinutes(context));
+                }
+        ),
+        SNOOZE_LONG(
+                (context, reminder) -> {
+                    snoozeReminder(context, reminder, Prefs.getSnoozeLongMinutes(context));
                 }
+        ),
+        /**
+         * Add a reminder from the text entered into the quick add notification or a reminder notification (see {@link #addReminderFromInput(Context, Reminder, String)}).
+         */
+        ADD_FROM_INPUT(
+                ReminderService::addReminderFromInput
         );
 
         private ReminderAction reminderAction;
+        private InputAction inputAction;
 
         Action(ReminderAction reminderAction) {
             this.reminderAction = reminderAction;
         }
 
+        Action(InputAction inputAction) {
+            this.inputAction = inputAction;
+        }
+
+        /**
+         * Whether the action is run with the text entered into the notification (with {@link #run(Context, Reminder, String)}). Such actions do not necessarily refer to a reminder.
+         *
+         * @return
+         */
+        boolean needsInput() {
+            return inputAction != null;
+        }
+
         void run(Context context, Reminder reminder) {
             reminderAction.run(context, reminder);
         }
+
+        void run(Context context, @Nullable Reminder reminder, String input) {
+            inputAction.run(context, reminder, input);
+        }
+    }
+
+    /**
+     * Show the reminder as appropriate and update its status. Should be used on due reminders.
+     * A recurring reminder is instead advanced to its next occurrence, which is scheduled.
+     * @param context
+     * @param reminder
+     */
+    public static void showReminder(Context context, Reminder reminder) {
+        // Snoozing would move the next occurrence of a recurring reminder, so it is only offered for single reminders
+        sendNotification(context, reminder.getId(), reminder.getText(), !reminder.isRecurring(), true);
+        if (reminder.isRecurring()) {
+            reminder.advanceToNextOccurrence(new Date());
+            ReminderManager.updateReminder(context, reminder, false); // rescheduling would cancel the notification just sent
+            scheduleReminder(context, reminder); // replaces the alarm of the past occurrence
+        } else {
+            reminder.setStatus(Reminder.Status.NOTIFIED);
+            ReminderManager.updateReminderState(context, reminder);
+        }
     }
 
-    @Override
-    public void onCreate() {
-        super.onCreate();
-        createNotificationChannel();
+    /**
+     * Remove the notification of the reminder and schedule it again the given number of minutes from now.
+     *
+     * @param context
+     * @param reminder
+     * @param minutes
+     */
+    private static void snoozeReminder(Context context, Reminder reminder, int minutes) {
+        NotificationManagerCompat.from(context).cancel(reminder.getId());
+        reminder.setDate(new Date(System.currentTimeMillis() + minutes * 60000L));
+        reminder.setStatus(Reminder.Status.SCHEDULED);
+        ReminderManager.updateReminderState(context, reminder);
+        scheduleReminder(context, reminder);
     }
 
-    @Override
-    protected void onHandleIntent(@Nullable Intent intent) {
-        if (intent == null) {
-            Log.w("ReminderService", "Service called with no intent.");
+    /**
+     * Add a reminder from text entered into a notification, consisting of a text and a time from now (see {@link QuickAddParser}). If entered into the notification of a reminder, the new reminder is a follow-up: it gets the text of that reminder if the input only contains a time, and that reminder is marked as done. Input into the quick add notification which only contains a time is rejected.
+     *
+     * @param context
+     * @param reminder the reminder whose notification the input was entered into, null for the quick add notification
+     * @param input
+     */
+    private static void addReminderFromInput(Context context, @Nullable Reminder reminder, String input) {
+        QuickAddParser.Result parsed = QuickAddParser.parse(input);
+        String text = parsed.getText().isEmpty() && reminder != null ? reminder.getText() : parsed.getText();
+        if (text.isEmpty()) {
+            restoreInputNotification(context, reminder);
+            new Handler(Looper.getMainLooper()).post(() -> Toast.makeText(context, R.string.toast_quick_add_text_missing, Toast.LENGTH_LONG).show());
             return;
         }
-        if (! intent.hasExtra(EXTRA_INT_ID)) {
-            throw new IllegalArgumentException("ReminderService called without reminder ID extra.");
+        int minutes = parsed.getMinutes() < 0 ? DEFAULT_INPUT_MINUTES : parsed.getMinutes();
+        Date date = new Date(System.currentTimeMillis() + minutes * 60000L);
+        ReminderManager.addReminder(context, Reminder.builder().date(date).text(text));
+
+        // The notification has to be updated to stop showing the input as being sent
+        if (reminder == null) {
+            updateQuickAddNotification(context);
+        } else {
+            NotificationManagerCompat.from(context).cancel(reminder.getId());
+            Action.MARK_DONE.run(context, reminder);
         }
-        int id = intent.getExtras().getInt(EXTRA_INT_ID, -1);
-        Action action = EnumUtil.deserialize(Action.class).from(intent);
-        Reminder reminder = ReminderManager.getReminder(this, id);
-        action.run(this, reminder);
+        new Handler(Looper.getMainLooper()).post(() -> UIUtils.showReminderDueToast(date, context));
     }
 
     /**
-     * Show the reminder as appropriate and update its status. Should be used on due reminders.
+     * Show or remove the quick add notification, depending on the setting.
+     *
      * @param context
-     * @param reminder
      */
-    public static void showReminder(Context context, Reminder reminder) {
-        sendNotification(context, reminder.getId(), reminder.getText());
-        reminder.setStatus(Reminder.Status.NOTIFIED);
-        ReminderManager.updateReminder(context, reminder, false);
+    public static void updateQuickAddNotification(Context context) {
+        setQuickAddNotificationShown(context, Prefs.isQuickAddNotificationEnabled(context));
+    }
+
+    /**
+     * Show or remove the notification which allows to add reminders by entering text into it.
+     *
+     * @param context
+     * @param shown
+     */
+    public static void setQuickAddNotificationShown(Context context, boolean shown) {
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        if (shown) {
+            notificationManager.notify(NOTIFICATION_ID_QUICK_ADD, NotificationFactory.getInstance(context).buildQuickAddNotification());
+        } else {
+            notificationManager.cancel(NOTIFICATION_ID_QUICK_ADD);
+        }
     }
 
     /**
@@ -206,33 +335,41 @@ public class ReminderService extends IntentService {
      * @param context
      * @param id The reminder's ID
      * @param text The text to be shown
+     * @param snoozable whether to add snooze actions
+     * @param alertAgain whether to alert also if the notification is still shown
      */
-    private static void sendNotification(Context context, int id, String text) {
-        PendingIntent markDoneIntent = intentBuilder()
-                .id(id)
-                .action(Action.MARK_DONE)
-                .buildPendingIntent(context);
-
-        Intent editReminderIntent = AddReminderDialogActivity.getIntentEditReminder(context, id);
-        PendingIntent editReminderPendingIntent = PendingIntent.getActivity(context, Reminder.getRequestCodeAddReminderDialogActivityPendingIntent(id), editReminderIntent, 0);
-
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_REMINDER)
-                .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
-                .setContentTitle(context.getString(R.string.notification_title))
-                .setContentText(text)
-                .setStyle(new NotificationCompat.BigTextStyle().bigText(text))
-                .setContentIntent(editReminderPendingIntent)
-                .setDeleteIntent(markDoneIntent)
-                .setPriority(Integer.valueOf(Prefs.getStringPref(R.string.prefkey_priority, "0", context)));
+    private static void sendNotification(Context context, int id, String text, boolean snoozable, boolean alertAgain) {
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        notificationManager.notify(id, NotificationFactory.getInstance(context).buildReminderNotification(id, text, snoozable, alertAgain));
+    }
 
-        if (Prefs.getBooleanPref(R.string.prefkey_enable_sound, false, context)) {
-            builder.setSound(getDefaultSound()); // Set default notification sound
+    /**
+     * Post the notifications of notified reminders and the quick add notification again, so that their actions use the intents of the current version of the app (e.g. after an update). Notifications which are still shown do not alert again.
+     *
+     * @param context
+     */
+    static void refreshNotifications(Context context) {
+        for (Reminder reminder : ReminderManager.getReminders(context)) {
+            if (reminder.getStatus() == Reminder.Status.NOTIFIED) {
+                sendNotification(context, reminder.getId(), reminder.getText(), !reminder.isRecurring(), false);
+            }
         }
-
-        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
-        notificationManager.notify(id, builder.build());
+        updateQuickAddNotification(context);
     }
 
+    /**
+     * Post the notification which input was entered into again without changes, so that it stops showing the input as being sent.
+     *
+     * @param context
+     * @param reminder the reminder whose notification the input was entered into, null for the quick add notification
+     */
+    static void restoreInputNotification(Context context, @Nullable Reminder reminder) {
+        if (reminder == null) {
+            updateQuickAddNotification(context);
+        } else {
+            sendNotification(context, reminder.getId(), reminder.getText(), !reminder.isRecurring(), false);
+        }
+    }
 
     /**
      * Schedules a reminder if its time is not in the past.
@@ -242,7 +379,7 @@ public class ReminderService extends IntentService {
      */
     public static void scheduleReminder(Context context, Reminder reminder) {
         // Prepare pending intent
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(ALARM_SERVICE);
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
         PendingIntent notifyIntent = intentBuilder()
                 .id(reminder.getId())
                 .action(Action.NOTIFY)
@@ -272,27 +409,38 @@ public class ReminderService extends IntentService {
         NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
         notificationManager.cancel(id);
 
-        // Cancel possibly scheduled alarm
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(ALARM_SERVICE);
+        cancelAlarm(context, id);
+    }
+
+    /**
+     * Cancel the alarm of a reminder if scheduled.
+     *
+     * @param context
+     * @param id
+     */
+    public static void cancelAlarm(Context context, int id) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
         alarmManager.cancel(getCancelNotifyIntent(context, id));
     }
 
-    private void createNotificationChannel() {
+    /**
+     * Create the notification channel for reminders. Has to be called once when the app starts, before any notification is sent.
+     *
+     * @param context
+     */
+    static void createNotificationChannel(Context context) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            CharSequence name = getString(R.string.channel_name);
-            String description = getString(R.string.channel_description);
+            CharSequence name = context.getString(R.string.channel_name);
+            String description = context.getString(R.string.channel_description);
             int importance = NotificationManager.IMPORTANCE_DEFAULT;
             NotificationChannel channel = new NotificationChannel(CHANNEL_REMINDER, name, importance);
             channel.setDescription(description);
-            NotificationManager notificationManager = getSystemService(NotificationManager.class);
+            NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
             notificationManager.createNotificationChannel(channel);
+            // The quick add notification is permanent, so it should not be shown in the status bar
+            NotificationChannel quickAddChannel = new NotificationChannel(CHANNEL_QUICK_ADD, context.getString(R.string.channel_quick_add_name), NotificationManager.IMPORTANCE_MIN);
+            quickAddChannel.setDescription(context.getString(R.string.channel_quick_add_description));
+            notificationManager.createNotificationChannel(quickAddChannel);
         }
     }
-
-    private static Uri getDefaultSound() {
-        if (defaultSound == null) {
-            defaultSound = Uri.parse("content://settings/system/notification_sound");
-        }
-        return defaultSound;
-    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Codecs;
+import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.util.ChecksummedFile;
+
+/**
+ * Saves the reminders together with the counters that have to change atomically with them in a {@link ChecksummedFile}, and keeps the saved content in memory.
+ * <p>
+ * Additionally, a marker file records that an operation on the reminders is in progress, so that alarms which an interrupted operation might have left inconsistent can be reconciled with the saved reminders on the next start.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+class ReminderStore {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The saved state. A fresh copy is obtained with every {@link #read()}, so it can be modified freely.
+     */
+    static class State {
+        /**
+         * Increased with every save, see {@link ReminderManager#getStoreVersion(android.content.Context)}.
+         */
+        long version;
+        /**
+         * The next ID for a reminder.
+         */
+        int nextId;
+        /**
+         * The generation of the status log changes are logged to, see {@link StatusLog}.
+         */
+        int statusLogGeneration;
+        List<Reminder> reminders = new ArrayList<>();
+    }
+
+    /**
+     * Receives the reminders of a saved state one at a time, see {@link #readReminders(String, ReminderHandler)}.
+     */
+    interface ReminderHandler {
+        void handle(Reminder reminder) throws IOException;
+    }
+
+    private final ChecksummedFile file;
+    private final File pendingMarker;
+    private final TypeAdapter<State> adapter = Codecs.get().getGson().getAdapter(State.class);
+
+    /**
+     * The saved state as JSON, null if nothing is saved yet.
+     */
+    private String json;
+    private long version;
+    private int statusLogGeneration;
+
+    ReminderStore(File file) {
+        this.file = new ChecksummedFile(file);
+        this.pendingMarker = new File(file.getPath() + ".pending");
+    }
+
+    boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Load the saved state from disk.
+     *
+     * @throws IOException
+     */
+    void load() throws IOException {
+        byte[] data = file.read();
+        json = data == null ? null : new String(data, UTF_8);
+        if (json != null) {
+            State state = read();
+            version = state.version;
+            statusLogGeneration = state.statusLogGeneration;
+        }
+    }
+
+    /**
+     * Whether the last {@link #load()} had to recover from an interrupted write or a corrupt file.
+     *
+     * @return
+     */
+    boolean wasRecovered() {
+        return file.wasRecovered();
+    }
+
+    /**
+     * Get a copy of the saved state, or an empty state if nothing is saved yet.
+     *
+     * @return
+     */
+    State read() {
+        return json == null ? new State() : Codecs.decode(adapter, json);
+    }
+
+    /**
+     * Get the saved state as JSON, to be read with {@link #readReminders(String, ReminderHandler)}. As the string is immutable, it stays valid after later saves.
+     *
+     * @return the saved state, null if nothing is saved yet
+     */
+    String getJson() {
+        return json;
+    }
+
+    /**
+     * Decode the reminders of a saved state one at a time and pass them to the given handler in the saved order, so that the decoded reminders do not have to be held in memory all at once.
+     *
+     * @param json    a saved state obtained by {@link #getJson()}, may be null
+     * @param handler
+     * @throws IOException if the handler fails or the JSON cannot be read
+     */
+    static void readReminders(String json, ReminderHandler handler) throws IOException {
+        if (json == null) {
+            return;
+        }
+        TypeAdapter<Reminder> reminderAdapter = Codecs.get().getReminderAdapter();
+        JsonReader reader = new JsonReader(new StringReader(json));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("reminders")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    handler.handle(reminderAdapter.read(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Save the given state.
+     *
+     * @param state
+     * @throws IOException if saving fails; the previously saved state then stays in effect in memory, on disk it is either the previous or the given state
+     */
+    void write(State state) throws IOException {
+        String newJson = adapter.toJson(state);
+        file.write(newJson.getBytes(UTF_8));
+        json = newJson;
+        version = state.version;
+        statusLogGeneration = state.statusLogGeneration;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    int getStatusLogGeneration() {
+        return statusLogGeneration;
+    }
+
+    /**
+     * Record that an operation is in progress. Only protects against the app process being killed; after a restart of the device all alarms are rescheduled anyway.
+     */
+    void markPending() {
+        try {
+            pendingMarker.createNewFile();
+        } catch (IOException e) {
+            // Only loses the hint for recovery
+        }
+    }
+
+    void clearPending() {
+        pendingMarker.delete();
+    }
+
+    boolean isPending() {
+        return pendingMarker.exists();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * An append-only log of status and date changes of reminders, which allows to persist such a change (e.g. marking a reminder as done or snoozing it) with a few bytes instead of rewriting all reminders.
+ * <p>
+ * Each record consists of the reminder ID (4 bytes), the ordinal of the new status (1 byte) and the new date in milliseconds (8 bytes). Later records override earlier ones. The log belongs to a generation of the saved reminders list: when the list is saved, it contains all logged statuses and a new generation with an empty log starts. Logs of other generations are therefore obsolete and are deleted with {@link #deleteOtherGenerations(int)}.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+class StatusLog {
+
+    /**
+     * The number of records after which the log should be compacted by saving the reminders list.
+     */
+    static final int MAX_RECORDS = 64;
+
+    private static final int RECORD_SIZE = 13;
+
+    private static final String FILE_PREFIX = "status-";
+
+    /**
+     * The logged state of a reminder.
+     */
+    static class Entry {
+        final Reminder.Status status;
+        final Date date;
+
+        Entry(Reminder.Status status, Date date) {
+            this.status = status;
+            this.date = date;
+        }
+    }
+
+    private final File dir;
+
+    StatusLog(File dir) {
+        this.dir = dir;
+    }
+
+    private File getFile(int generation) {
+        return new File(dir, FILE_PREFIX + generation);
+    }
+
+    /**
+     * Append the current status and date of the given reminder to the log of the given generation. A partial record at the end (from an interrupted or failed write) is overwritten, so that records stay aligned.
+     *
+     * @param generation
+     * @param reminder
+     * @throws IOException if writing fails; the log might then end with a partial record, which is ignored when reading
+     */
+    void append(int generation, Reminder reminder) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory " + dir);
+        }
+        ByteArrayOutputStream record = new ByteArrayOutputStream(RECORD_SIZE);
+        DataOutputStream data = new DataOutputStream(record);
+        data.writeInt(reminder.getId());
+        data.writeByte(reminder.getStatus().ordinal());
+        data.writeLong(reminder.getDate().getTime());
+        try (RandomAccessFile file = new RandomAccessFile(getFile(generation), "rw")) {
+            long end = file.length() / RECORD_SIZE * RECORD_SIZE;
+            file.seek(end);
+            file.write(record.toByteArray()); // a single write, so that an interrupted write can only leave a partial record at the end
+            file.setLength(end + RECORD_SIZE);
+            file.getFD().sync();
+        }
+    }
+
+    /**
+     * Get the number of records in the log of the given generation.
+     *
+     * @param generation
+     * @return
+     */
+    int size(int generation) {
+        return (int) (getFile(generation).length() / RECORD_SIZE);
+    }
+
+    /**
+     * Read the latest entry of each reminder in the log of the given generation. A partial record at the end (from an interrupted write) is ignored. Reading stops at the first invalid record, as the records after it cannot be trusted, and the log is truncated there so that later records are read again. The reminders then only lose the logged changes from there on.
+     *
+     * @param generation
+     * @return the entries by reminder ID
+     * @throws IOException
+     */
+    Map<Integer, Entry> read(int generation) throws IOException {
+        Map<Integer, Entry> entries = new HashMap<>();
+        Reminder.Status[] values = Reminder.Status.values();
+        long valid = 0;
+        boolean corrupt = false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(getFile(generation)))) {
+            while (true) {
+                int id = in.readInt();
+                int ordinal = in.readUnsignedByte();
+                long date = in.readLong();
+                if (id < 0 || id % 2 != 0 || ordinal >= values.length) {
+                    corrupt = true;
+                    break;
+                }
+                entries.put(id, new Entry(values[ordinal], new Date(date)));
+                valid += RECORD_SIZE;
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing logged in this generation
+        } catch (EOFException e) {
+            // End of log
+        }
+        if (corrupt) {
+            try (RandomAccessFile file = new RandomAccessFile(getFile(generation), "rw")) {
+                file.setLength(valid);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Delete the logs of all generations except the given one.
+     *
+     * @param generation
+     */
+    void deleteOtherGenerations(int generation) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        String current = getFile(generation).getName();
+        for (File file : files) {
+            if (file.getName().startsWith(FILE_PREFIX) && !file.getName().equals(current)) {
+                file.delete();
+            }
+        }
+    }
+}
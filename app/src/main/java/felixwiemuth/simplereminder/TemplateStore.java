@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.data.Template;
+
+import static android.content.Context.MODE_PRIVATE;
+
+/**
+ * Stores reminder templates. Templates are kept in their own preferences file, separate from the reminders, and are held in memory once loaded, so that listing templates and creating a reminder from a template does not require loading the reminders.
+ *
+ * @author Felix Wiemuth
+ */
+public class TemplateStore {
+
+    public static final String BROADCAST_TEMPLATES_UPDATED = "felixwiemuth.simplereminder.BROADCAST_TEMPLATES_UPDATED";
+
+    private static final String PREFS_TEMPLATES = "templates";
+
+    /**
+     * GSON-serialized list of {@link Template}s.
+     */
+    private static final String PREF_TEMPLATES = "templates";
+
+    /**
+     * The next ID for a template.
+     */
+    private static final String PREF_NEXTID = "nextid";
+
+    /**
+     * The loaded templates or null if not loaded yet. Guarded by the class lock.
+     */
+    private static List<Template> templates;
+
+    private static SharedPreferences getPrefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_TEMPLATES, MODE_PRIVATE);
+    }
+
+    /**
+     * Load the templates in the background, so that they are available without delay when needed.
+     *
+     * @param context
+     */
+    public static void preload(Context context) {
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> getTemplatesLoaded(appContext), "TemplateStore").start();
+    }
+
+    private static synchronized List<Template> getTemplatesLoaded(Context context) {
+        if (templates == null) {
+            templates = Template.fromJson(getPrefs(context).getString(PREF_TEMPLATES, "[]"));
+        }
+        return templates;
+    }
+
+    /**
+     * Get a copy of the list of templates.
+     *
+     * @param context
+     * @return
+     */
+    public static synchronized List<Template> getTemplates(Context context) {
+        return new ArrayList<>(getTemplatesLoaded(context));
+    }
+
+    /**
+     * Add templates. IDs are assigned by this method.
+     *
+     * @param context
+     * @param templateBuilders
+     */
+    public static void addTemplates(Context context, Collection<Template.TemplateBuilder> templateBuilders) {
+        synchronized (TemplateStore.class) {
+            SharedPreferences prefs = getPrefs(context);
+            List<Template> current = getTemplatesLoaded(context);
+            int nextId = prefs.getInt(PREF_NEXTID, 0);
+            for (Template.TemplateBuilder builder : templateBuilders) {
+                current.add(builder.id(nextId++).build());
+            }
+            save(prefs.edit().putInt(PREF_NEXTID, nextId), current);
+        }
+        notifyTemplatesChangedBroadcast(context);
+    }
+
+    public static void removeTemplate(Context context, int id) {
+        synchronized (TemplateStore.class) {
+            List<Template> current = getTemplatesLoaded(context);
+            Iterator<Template> it = current.iterator();
+            while (it.hasNext()) {
+                if (it.next().getId() == id) {
+                    it.remove();
+                }
+            }
+            save(getPrefs(context).edit(), current);
+        }
+        notifyTemplatesChangedBroadcast(context);
+    }
+
+    @SuppressLint("ApplySharedPref")
+    private static void save(SharedPreferences.Editor editor, List<Template> templates) {
+        editor.putString(PREF_TEMPLATES, Template.toJson(templates)).commit();
+    }
+
+    /**
+     * Create a reminder from the given template.
+     *
+     * @param context
+     * @param template
+     * @return the due date of the created reminder
+     */
+    public static Date createReminder(Context context, Template template) {
+        Date date = template.getNextDate(new Date());
+        ReminderManager.addReminder(context, Reminder.builder()
+                .text(template.getText())
+                .date(date));
+        return date;
+    }
+
+    private static void notifyTemplatesChangedBroadcast(Context context) {
+        LocalBroadcastManager.getInstance(context).sendBroadcast(new Intent(BROADCAST_TEMPLATES_UPDATED));
+    }
+}
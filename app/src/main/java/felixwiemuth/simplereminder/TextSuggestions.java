@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.content.Context;
+
+import java.util.Collections;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.util.SuggestionTrie;
+
+/**
+ * Suggests reminder texts based on the texts of previous reminders, ranked by frequency and recency of use. The suggestions are loaded in the background ({@link #preload(Context)}) and updated when reminders are added.
+ *
+ * @author Felix Wiemuth
+ */
+public class TextSuggestions {
+
+    private static final SuggestionTrie trie = new SuggestionTrie();
+
+    private static boolean loadStarted;
+    private static volatile boolean loaded;
+
+    /**
+     * Start loading the suggestions in the background if not already done. Suggestions are available when loading has finished.
+     *
+     * @param context
+     */
+    public static synchronized void preload(Context context) {
+        if (loadStarted) {
+            return;
+        }
+        loadStarted = true;
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> {
+            for (Reminder reminder : ReminderManager.getReminders(appContext)) {
+                trie.add(reminder.getText(), reminder.getDate().getTime());
+            }
+            loaded = true;
+        }, "TextSuggestions").start();
+    }
+
+    /**
+     * Record the text of a newly added reminder. Must only be called after the reminder has been saved. Ignored while the suggestions are not loaded, as loading reads the saved reminders.
+     *
+     * @param reminder
+     */
+    static void onReminderAdded(Reminder reminder) {
+        if (loaded) {
+            trie.add(reminder.getText(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Get the best suggestions starting with the given prefix. Only performs a lookup in a prefix tree, so it is fast enough to be called on every keystroke.
+     *
+     * @param prefix
+     * @param k      maximum number of suggestions
+     * @return the suggestions, best first; empty if not loaded yet
+     */
+    public static List<String> suggest(String prefix, int k) {
+        if (!loaded) {
+            return Collections.emptyList();
+        }
+        return trie.suggest(prefix, k);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import java.util.TimeZone;
+
+import felixwiemuth.simplereminder.ui.reminderslist.RemindersListFragment;
+import felixwiemuth.simplereminder.ui.widget.RemindersWidgetProvider;
+import felixwiemuth.simplereminder.util.DateTimeUtil;
+
+/**
+ * Handles changes of the time zone and of the system clock. Reminders affected by the change are updated and rescheduled (see {@link ReminderManager#updateRemindersAfterClockChange(Context, TimeZone)}), and everything showing dates relative to the current day or formatted in the local time zone is refreshed.
+ *
+ * @author Felix Wiemuth
+ */
+public class TimeChangeReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction()) && !Intent.ACTION_TIME_CHANGED.equals(intent.getAction())) {
+            Log.w("TimeChangeReceiver", "Received unexpected intent: " + intent);
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        new Thread(() -> {
+            try {
+                onTimeSettingsChanged(appContext);
+            } finally {
+                pendingResult.finish();
+            }
+        }, "TimeChange").start();
+    }
+
+    /**
+     * Handle a change of the time zone while the app was not running (e.g. while the device was off), which is not received. To be called on startup.
+     *
+     * @param context
+     */
+    static void checkTimeZone(Context context) {
+        TimeZone previousTimeZone = Prefs.updateTimeZone(context);
+        if (previousTimeZone != null) {
+            update(context, previousTimeZone);
+        }
+    }
+
+    private static void onTimeSettingsChanged(Context context) {
+        update(context, Prefs.updateTimeZone(context));
+    }
+
+    /**
+     * Update reminders and displays after the time zone or system clock changed.
+     *
+     * @param context
+     * @param previousTimeZone the time zone before the change, null if it did not change
+     */
+    private static void update(Context context, TimeZone previousTimeZone) {
+        DateTimeUtil.onTimeSettingsChanged();
+        ReminderManager.updateRemindersAfterClockChange(context, previousTimeZone);
+        ReminderManager.savePendingUpdates(context);
+        RemindersWidgetProvider.update(context);
+        // Let an open reminders list update its sections even if no reminder changed
+        LocalBroadcastManager.getInstance(context).sendBroadcast(RemindersListFragment.getRemindersUpdatedBroadcastIntent());
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * A compact copy of the next reminders to be shown by the home screen widget, so that the widget does not have to load all reminders when it is updated.
+ * <p>
+ * The snapshot contains the first {@link #MAX_ENTRIES} reminders which are scheduled or due, ordered by date. It is kept up to date by {@link ReminderManager} and stored in a small binary file: the format version, the number of entries and, for each entry, the ID, the date, whether the reminder is due and the (shortened) text.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+public class WidgetSnapshot {
+
+    public static final int MAX_ENTRIES = 5;
+
+    static final int MAX_TEXT_LENGTH = 100;
+
+    private static final int FORMAT_VERSION = 1;
+
+    public static class Entry {
+        private final int id;
+        private final long date;
+        private final boolean due;
+        private final String text;
+
+        Entry(int id, long date, boolean due, String text) {
+            this.id = id;
+            this.date = date;
+            this.due = due;
+            this.text = text;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Date getDate() {
+            return new Date(date);
+        }
+
+        /**
+         * @return whether the reminder has been notified
+         */
+        public boolean isDue() {
+            return due;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return id == entry.id && date == entry.date && due == entry.due && text.equals(entry.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    private final File file;
+
+    /**
+     * The entries of the file, null if not known.
+     */
+    private List<Entry> entries;
+
+    private boolean entriesRead;
+
+    WidgetSnapshot(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Select the reminders to be shown by the widget.
+     *
+     * @param reminders
+     * @return
+     */
+    static List<Entry> select(Iterable<Reminder> reminders) {
+        List<Reminder> candidates = new ArrayList<>();
+        for (Reminder reminder : reminders) {
+            if (reminder.getStatus() != Reminder.Status.DONE) {
+                candidates.add(reminder);
+            }
+        }
+        Collections.sort(candidates, (r1, r2) -> r1.getDate().compareTo(r2.getDate()));
+        List<Entry> selected = new ArrayList<>();
+        for (Reminder reminder : candidates.subList(0, Math.min(MAX_ENTRIES, candidates.size()))) {
+            selected.add(new Entry(reminder.getId(), reminder.getDate().getTime(), reminder.getStatus() == Reminder.Status.NOTIFIED, shorten(reminder.getText())));
+        }
+        return selected;
+    }
+
+    private static String shorten(String text) {
+        if (text.length() <= MAX_TEXT_LENGTH) {
+            return text;
+        }
+        int end = MAX_TEXT_LENGTH;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Whether a change of the given reminder might change the snapshot. If not, the snapshot does not have to be updated after changing only this reminder.
+     *
+     * @param reminder the changed reminder
+     * @return
+     */
+    boolean isAffectedBy(Reminder reminder) {
+        readEntriesOnce();
+        if (entries == null) {
+            return true;
+        }
+        for (Entry entry : entries) {
+            if (entry.id == reminder.getId()) {
+                return true;
+            }
+        }
+        return reminder.getStatus() != Reminder.Status.DONE
+                && (entries.size() < MAX_ENTRIES || reminder.getDate().getTime() < entries.get(entries.size() - 1).date);
+    }
+
+    /**
+     * Update the snapshot to show the given reminders.
+     *
+     * @param reminders all reminders
+     * @return whether the snapshot changed
+     * @throws IOException
+     */
+    boolean update(Iterable<Reminder> reminders) throws IOException {
+        List<Entry> selected = select(reminders);
+        readEntriesOnce();
+        if (selected.equals(entries)) {
+            return false;
+        }
+        entries = null; // unknown if writing fails
+        write(file, selected);
+        entries = selected;
+        return true;
+    }
+
+    /**
+     * Read the entries of the existing file if not done yet, e.g. after the process was restarted.
+     */
+    private void readEntriesOnce() {
+        if (!entriesRead) {
+            entriesRead = true;
+            try {
+                entries = read(file);
+            } catch (IOException e) {
+                entries = null;
+            }
+        }
+    }
+
+    static void write(File file, List<Entry> entries) throws IOException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(entries.size());
+            for (Entry entry : entries) {
+                out.writeInt(entry.id);
+                out.writeLong(entry.date);
+                out.writeBoolean(entry.due);
+                out.writeUTF(entry.text);
+            }
+        }
+        // The snapshot can be recreated from the reminders, so it is not synced
+        if (!tmpFile.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    /**
+     * Read a snapshot.
+     *
+     * @param file
+     * @return the entries of the snapshot, null if the file does not exist or has an unknown format
+     * @throws IOException
+     */
+    static List<Entry> read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                return null;
+            }
+            int count = in.readByte();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(in.readInt(), in.readLong(), in.readBoolean(), in.readUTF()));
+            }
+            return entries;
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The format of reminder backups: a header line followed by one reminder per line in the JSON format of {@link Codecs#getReminderAdapter()}, encoded in UTF-8.
+ * <p>
+ * Backups are written and read through a fixed size buffer, and reminders are read in batches of limited size, so that memory use does not depend on the size of the backup (apart from the longest line).
+ *
+ * @author Felix Wiemuth
+ */
+public class BackupFormat {
+
+    public static final String HEADER = "SimpleReminder backup 1";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Receives the reminders read from a backup.
+     */
+    public interface BatchHandler {
+        /**
+         * @param batch the next reminders of the backup, at least one
+         */
+        void handle(List<Reminder> batch);
+    }
+
+    public static class InvalidBackupException extends IOException {
+        public InvalidBackupException(String message) {
+            super(message);
+        }
+
+        public InvalidBackupException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Writes a backup one reminder at a time. {@link #finish()} must be called after the last reminder.
+     */
+    public static class Writer {
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = UTF_8.newEncoder();
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Start a backup by writing the header.
+         *
+         * @param channel
+         * @throws IOException
+         */
+        public Writer(WritableByteChannel channel) throws IOException {
+            this.channel = channel;
+            writeLine(channel, encoder, buffer, HEADER);
+        }
+
+        public void write(Reminder reminder) throws IOException {
+            writeLine(channel, encoder, buffer, Codecs.get().getReminderAdapter().toJson(reminder));
+        }
+
+        /**
+         * Write what is left in the buffer.
+         *
+         * @throws IOException
+         */
+        public void finish() throws IOException {
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Write a backup of the given reminders.
+     *
+     * @param channel
+     * @param reminders
+     * @throws IOException
+     */
+    public static void write(WritableByteChannel channel, Iterable<Reminder> reminders) throws IOException {
+        Writer writer = new Writer(channel);
+        for (Reminder reminder : reminders) {
+            writer.write(reminder);
+        }
+        writer.finish();
+    }
+
+    private static void writeLine(WritableByteChannel channel, CharsetEncoder encoder, ByteBuffer buffer, String line) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line + '\n');
+        encoder.reset();
+        CoderResult result;
+        while ((result = encoder.encode(chars, buffer, true)).isOverflow()) {
+            drain(channel, buffer);
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Read a backup, passing the reminders to the given handler in the order of the backup. If the backup is invalid, the batches before the invalid line have already been handled.
+     *
+     * @param channel
+     * @param batchSize the maximum number of reminders passed to the handler at once
+     * @param handler
+     * @return the number of reminders read
+     * @throws InvalidBackupException if the header is missing or a line does not contain a valid reminder
+     * @throws IOException
+     */
+    public static int read(ReadableByteChannel channel, int batchSize, BatchHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        List<Reminder> batch = new ArrayList<>(batchSize);
+        int lineNumber = 0;
+        int count = 0;
+        while (channel.read(buffer) != -1) {
+            byte[] data = buffer.array();
+            int start = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                // A newline byte cannot be part of a multi-byte character in UTF-8
+                if (data[i] == '\n') {
+                    line.write(data, start, i - start);
+                    start = i + 1;
+                    if (readLine(line, ++lineNumber, batch)) {
+                        count++;
+                        if (batch.size() == batchSize) {
+                            handler.handle(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    line.reset();
+                }
+            }
+            line.write(data, start, buffer.position() - start);
+            buffer.clear();
+        }
+        if (line.size() > 0 && readLine(line, ++lineNumber, batch)) {
+            count++;
+        }
+        if (lineNumber == 0) {
+            throw new InvalidBackupException("The file is empty.");
+        }
+        if (!batch.isEmpty()) {
+            handler.handle(batch);
+        }
+        return count;
+    }
+
+    /**
+     * Read the given line of a backup.
+     *
+     * @param line
+     * @param lineNumber
+     * @param batch      the batch to add a reminder on the line to
+     * @return whether a reminder was added to the batch
+     * @throws InvalidBackupException
+     */
+    private static boolean readLine(ByteArrayOutputStream line, int lineNumber, List<Reminder> batch) throws InvalidBackupException {
+        String text = new String(line.toByteArray(), UTF_8).trim();
+        if (lineNumber == 1) {
+            if (!text.equals(HEADER)) {
+                throw new InvalidBackupException("Not a backup of reminders.");
+            }
+            return false;
+        }
+        if (text.isEmpty()) {
+            return false;
+        }
+        Reminder reminder;
+        try {
+            reminder = Codecs.decode(Codecs.get().getReminderAdapter(), text);
+        } catch (JsonParseException e) {
+            throw new InvalidBackupException("Invalid reminder on line " + lineNumber + ".", e);
+        }
+        if (reminder == null || reminder.getDate() == null || reminder.getText() == null || reminder.getStatus() == null) {
+            throw new InvalidBackupException("Incomplete reminder on line " + lineNumber + ".");
+        }
+        // Reminders read with Gson bypass the checks of the constructor
+        if (reminder.getId() < 0 || reminder.getId() % 2 != 0) {
+            throw new InvalidBackupException("Invalid reminder ID on line " + lineNumber + ".");
+        }
+        batch.add(reminder);
+        return true;
+    }
+}
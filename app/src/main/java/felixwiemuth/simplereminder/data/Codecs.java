@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON codecs used to persist reminders, templates and the search index.
+ * <p>
+ * There is one {@link Gson} instance for the whole process, and the type adapters for the stored types are created together with it. Creating these adapters involves reflection over the data classes, which is slow on first use, so {@link #warmUp()} should be called on a background thread at startup; otherwise the first load of the reminders (often on the UI thread) pays for it.
+ * <p>
+ * Instances are published through the class initialization of a holder class, which the JVM guarantees to happen exactly once and to be visible to all threads.
+ *
+ * @author Felix Wiemuth
+ */
+public class Codecs {
+
+    private static final class Holder {
+        private static final Codecs INSTANCE = new Codecs(createGson());
+    }
+
+    private final Gson gson;
+    private final TypeAdapter<Reminder> reminder;
+    private final TypeAdapter<List<Reminder>> reminderList;
+    private final TypeAdapter<List<Template>> templateList;
+    private final TypeAdapter<Map<String, List<Integer>>> postings;
+
+    /**
+     * Create a separate registry, only used by tests, e.g. to measure the cost of the first load without warm-up (see CodecsFirstLoadBenchmark in the instrumented tests). Use {@link #get()} otherwise.
+     *
+     * @param gson
+     */
+    Codecs(Gson gson) {
+        this.gson = gson;
+        reminder = gson.getAdapter(Reminder.class);
+        reminderList = gson.getAdapter(new TypeToken<List<Reminder>>() {
+        });
+        templateList = gson.getAdapter(new TypeToken<List<Template>>() {
+        });
+        postings = gson.getAdapter(new TypeToken<Map<String, List<Integer>>>() {
+        });
+    }
+
+    static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()))
+                .registerTypeAdapter(Date.class, (JsonSerializer<Date>) (date, type, jsonSerializationContext) -> new JsonPrimitive(date.getTime()))
+                .create();
+    }
+
+    public static Codecs get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Create the shared codecs (if not done yet) and run each adapter once, so that all classes involved are loaded and initialized. Blocks until done.
+     */
+    public static void warmUp() {
+        get().exercise();
+    }
+
+    void exercise() {
+        Reminder reminder = Reminder.builder().id(0).date(new Date(0)).text("").build();
+        decode(reminderList, reminderList.toJson(Collections.singletonList(reminder)));
+        Template template = Template.builder().id(0).text("").timeType(Template.TimeType.RELATIVE).minutes(0).build();
+        decode(templateList, templateList.toJson(Collections.singletonList(template)));
+        decode(postings, postings.toJson(Collections.singletonMap("", Collections.singletonList(0))));
+    }
+
+    /**
+     * Read a value with the given adapter.
+     *
+     * @param adapter
+     * @param json
+     * @param <T>
+     * @return
+     * @throws JsonSyntaxException if the JSON cannot be read
+     */
+    public static <T> T decode(TypeAdapter<T> adapter, String json) {
+        try {
+            return adapter.fromJson(json);
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public TypeAdapter<Reminder> getReminderAdapter() {
+        return reminder;
+    }
+
+    public TypeAdapter<List<Reminder>> getReminderListAdapter() {
+        return reminderList;
+    }
+
+    public TypeAdapter<List<Template>> getTemplateListAdapter() {
+        return templateList;
+    }
+
+    /**
+     * The adapter for the postings of a {@link SearchIndex} (token to reminder IDs).
+     *
+     * @return
+     */
+    public TypeAdapter<Map<String, List<Integer>>> getPostingsAdapter() {
+        return postings;
+    }
+}
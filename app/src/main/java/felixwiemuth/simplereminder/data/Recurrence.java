@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * A rule describing how a reminder repeats. Only the next occurrence of a recurring reminder is stored (as the reminder's date) and scheduled; when it is due, the following occurrence is computed with {@link #nextOccurrence(Date, Date)}.
+ *
+ * @author Felix Wiemuth
+ */
+public class Recurrence {
+
+    public enum Unit {
+        HOURLY,
+        DAILY,
+        /**
+         * Repeats on the days of week given by {@link #weekdays} in every {@link #interval}-th week.
+         */
+        WEEKLY,
+        /**
+         * Repeats on day {@link #dayOfMonth} of every {@link #interval}-th month (or the last day of the month if it has less days).
+         */
+        MONTHLY
+    }
+
+    private final Unit unit;
+    /**
+     * Number of units between occurrences, at least 1.
+     */
+    private final int interval;
+    /**
+     * Days of week for {@link Unit#WEEKLY}, where bit i (from the right) stands for the day {@link Calendar#DAY_OF_WEEK} = i+1.
+     */
+    private final int weekdays;
+    /**
+     * Day of month for {@link Unit#MONTHLY}.
+     */
+    private final int dayOfMonth;
+
+    private Recurrence(Unit unit, int interval, int weekdays, int dayOfMonth) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be >= 1.");
+        }
+        this.unit = unit;
+        this.interval = interval;
+        this.weekdays = weekdays;
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    public static Recurrence everyHours(int hours) {
+        return new Recurrence(Unit.HOURLY, hours, 0, 0);
+    }
+
+    public static Recurrence daily(int days) {
+        return new Recurrence(Unit.DAILY, days, 0, 0);
+    }
+
+    /**
+     * Repeat on the given days of week every {@code weeks} weeks.
+     *
+     * @param weeks
+     * @param daysOfWeek values of {@link Calendar#DAY_OF_WEEK}, at least one
+     * @return
+     */
+    public static Recurrence weekly(int weeks, int... daysOfWeek) {
+        int mask = 0;
+        for (int day : daysOfWeek) {
+            if (day < Calendar.SUNDAY || day > Calendar.SATURDAY) {
+                throw new IllegalArgumentException("Invalid day of week: " + day);
+            }
+            mask |= 1 << (day - 1);
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("At least one day of week must be given.");
+        }
+        return new Recurrence(Unit.WEEKLY, weeks, mask, 0);
+    }
+
+    public static Recurrence monthly(int months, int dayOfMonth) {
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new IllegalArgumentException("Invalid day of month: " + dayOfMonth);
+        }
+        return new Recurrence(Unit.MONTHLY, months, 0, dayOfMonth);
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public boolean isOnDayOfWeek(int dayOfWeek) {
+        return (weekdays & (1 << (dayOfWeek - 1))) != 0;
+    }
+
+    public int getDayOfMonth() {
+        return dayOfMonth;
+    }
+
+    /**
+     * Get the first occurrence at or after the given start date. The time of day of the start is kept.
+     *
+     * @param start
+     * @return
+     */
+    public Date firstOccurrence(Date start) {
+        Calendar c = Calendar.getInstance();
+        c.setTime(start);
+        switch (unit) {
+            case WEEKLY:
+                while (!isOnDayOfWeek(c.get(Calendar.DAY_OF_WEEK))) {
+                    c.add(Calendar.DAY_OF_MONTH, 1);
+                }
+                return c.getTime();
+            case MONTHLY:
+                setDayOfMonth(c);
+                if (c.getTime().before(start)) {
+                    c.set(Calendar.DAY_OF_MONTH, 1);
+                    c.add(Calendar.MONTH, 1);
+                    setDayOfMonth(c);
+                }
+                return c.getTime();
+            default:
+                return start;
+        }
+    }
+
+    /**
+     * Get the first occurrence after {@code after} in the series continuing the occurrence {@code last}.
+     * Occurrences which would lie between {@code last} and {@code after} (e.g. while the device was off) are skipped.
+     *
+     * @param last  an occurrence of this recurrence
+     * @param after the returned occurrence will be strictly after this date (and after {@code last})
+     * @return
+     */
+    public Date nextOccurrence(Date last, Date after) {
+        if (after.before(last)) {
+            after = last;
+        }
+        if (unit == Unit.HOURLY) {
+            // Compute directly, so that long pauses do not require to step through all occurrences
+            long period = interval * 60L * 60L * 1000L;
+            long steps = (after.getTime() - last.getTime()) / period + 1;
+            return new Date(last.getTime() + steps * period);
+        }
+        Calendar c = Calendar.getInstance();
+        c.setTime(last);
+        do {
+            step(c);
+        } while (!c.getTime().after(after));
+        return c.getTime();
+    }
+
+    /**
+     * Advance the calendar from one occurrence to the next.
+     *
+     * @param c
+     */
+    private void step(Calendar c) {
+        switch (unit) {
+            case DAILY:
+                c.add(Calendar.DAY_OF_MONTH, interval);
+                break;
+            case WEEKLY:
+                // The week of the current occurrence is always one in which the reminder is active
+                int weeksPassed = 0;
+                do {
+                    c.add(Calendar.DAY_OF_MONTH, 1);
+                    if (c.get(Calendar.DAY_OF_WEEK) == c.getFirstDayOfWeek()) {
+                        weeksPassed++;
+                    }
+                } while (weeksPassed % interval != 0 || !isOnDayOfWeek(c.get(Calendar.DAY_OF_WEEK)));
+                break;
+            case MONTHLY:
+                c.set(Calendar.DAY_OF_MONTH, 1);
+                c.add(Calendar.MONTH, interval);
+                setDayOfMonth(c);
+                break;
+            default:
+                throw new IllegalStateException("Unit " + unit + " cannot be stepped through.");
+        }
+    }
+
+    /**
+     * Move an occurrence to the time zone the device changed to, keeping its local date and time of day (a daily reminder at 8:00 stays at 8:00 after travelling). Hourly occurrences are not bound to a time of day and stay unchanged.
+     *
+     * @param occurrence an occurrence of this recurrence
+     * @param from       the time zone in which the occurrence was computed
+     * @param to         the new time zone
+     * @return
+     */
+    public Date adjustToTimeZone(Date occurrence, TimeZone from, TimeZone to) {
+        if (unit == Unit.HOURLY) {
+            return occurrence;
+        }
+        Calendar source = Calendar.getInstance(from);
+        source.setTime(occurrence);
+        Calendar target = Calendar.getInstance(to);
+        target.clear();
+        target.set(source.get(Calendar.YEAR), source.get(Calendar.MONTH), source.get(Calendar.DAY_OF_MONTH),
+                source.get(Calendar.HOUR_OF_DAY), source.get(Calendar.MINUTE), source.get(Calendar.SECOND));
+        target.set(Calendar.MILLISECOND, source.get(Calendar.MILLISECOND));
+        return target.getTime();
+    }
+
+    private void setDayOfMonth(Calendar c) {
+        c.set(Calendar.DAY_OF_MONTH, Math.min(dayOfMonth, c.getActualMaximum(Calendar.DAY_OF_MONTH)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Recurrence)) {
+            return false;
+        }
+        Recurrence r = (Recurrence) o;
+        return unit == r.unit && interval == r.interval && weekdays == r.weekdays && dayOfMonth == r.dayOfMonth;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((unit.hashCode() * 31 + interval) * 31 + weekdays) * 31 + dayOfMonth;
+    }
+}
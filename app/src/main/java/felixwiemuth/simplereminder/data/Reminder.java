@@ -18,15 +18,12 @@
 package felixwiemuth.simplereminder.data;
 
 import androidx.annotation.NonNull;
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
+import androidx.annotation.Nullable;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.lang.reflect.Type;
 import java.util.Calendar;
-import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -37,8 +34,6 @@ import java.util.List;
 public class Reminder implements Comparable<Reminder> {
     // NOTE: when changing this class, check sorting criterea in RemindersListFragment.SortedListCallback
 
-    private static Gson gson;
-
     private static final int OFFSET_REQUEST_CODE_ADD_REMINDER_DIALOG_ACTIVITY_PENDING_INTENT = 1000000;
 
     /**
@@ -69,9 +64,13 @@ public class Reminder implements Comparable<Reminder> {
     private @Setter Date date;
     private @Setter String text;
     private @Setter Status status;
+    /**
+     * How the reminder repeats, null if it does not repeat. For a recurring reminder, {@link #date} is the next occurrence.
+     */
+    private @Setter @Nullable Recurrence recurrence;
 
     @Builder //(builderClassName = "Builder")
-    public Reminder(int id, @NonNull Date date, @NonNull String text) {
+    public Reminder(int id, @NonNull Date date, @NonNull String text, @Nullable Recurrence recurrence) {
         if (id < 0) {
             throw new IllegalArgumentException("Id must be >= 0.");
         }
@@ -79,6 +78,47 @@ public class Reminder implements Comparable<Reminder> {
         this.date = date;
         this.text = text;
         this.status = Status.SCHEDULED;
+        this.recurrence = recurrence;
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Advance a recurring reminder to its next occurrence after the given time and set its status to {@link Status#SCHEDULED}.
+     *
+     * @param after
+     */
+    public void advanceToNextOccurrence(Date after) {
+        if (recurrence == null) {
+            throw new IllegalStateException("Reminder " + id + " is not recurring.");
+        }
+        date = recurrence.nextOccurrence(date, after);
+        status = Status.SCHEDULED;
+    }
+
+    /**
+     * Create a copy of this reminder. The recurrence is immutable and therefore shared.
+     *
+     * @return
+     */
+    public Reminder copy() {
+        Reminder copy = new Reminder(id, new Date(date.getTime()), text, recurrence);
+        copy.status = status;
+        return copy;
+    }
+
+    /**
+     * Create a copy of this reminder with a different ID.
+     *
+     * @param id
+     * @return
+     */
+    public Reminder copyWithId(int id) {
+        Reminder copy = copy();
+        copy.id = id;
+        return copy;
     }
 
     public Calendar getCalendar() {
@@ -93,23 +133,11 @@ public class Reminder implements Comparable<Reminder> {
     }
 
     public static String toJson(List<Reminder> reminders) {
-        return getGson().toJson(reminders);
+        return Codecs.get().getReminderListAdapter().toJson(reminders);
     }
 
     public static List<Reminder> fromJson(String json) {
-        Type collectionType = new TypeToken<Collection<Reminder>>() {
-        }.getType();
-        return getGson().fromJson(json, collectionType);
-    }
-
-    private static Gson getGson() {
-        if (gson == null) {
-            gson = new GsonBuilder()
-                    .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> new Date(json.getAsJsonPrimitive().getAsLong()))
-                    .registerTypeAdapter(Date.class, (JsonSerializer<Date>) (date, type, jsonSerializationContext) -> new JsonPrimitive(date.getTime()))
-                    .create();
-        }
-        return gson;
+        return Codecs.decode(Codecs.get().getReminderListAdapter(), json);
     }
 
     public int getRequestCodeAddReminderDialogActivityPendingIntent() {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index over reminder texts, mapping tokens (normalized words) to the IDs of the reminders containing them. The index is updated incrementally with {@link #put(int, String)} and {@link #remove(int)} and answers prefix queries without looking at the reminders themselves.
+ * This class is thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+public class SearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Token -> IDs of reminders containing it. Sorted to find all tokens with a given prefix.
+     */
+    private final TreeMap<String, Set<Integer>> postings = new TreeMap<>();
+
+    /**
+     * Reminder ID -> indexed tokens, needed to update the postings when a reminder changes.
+     */
+    private final Map<Integer, Set<String>> tokensById = new HashMap<>();
+
+    /**
+     * Split a text into normalized tokens: lower case words without diacritics.
+     *
+     * @param text
+     * @return the distinct tokens in order of first occurrence
+     */
+    public static Set<String> tokenize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Index the reminder with the given ID under the given text, replacing a previously indexed text.
+     *
+     * @param id
+     * @param text
+     * @return whether the index changed
+     */
+    public synchronized boolean put(int id, String text) {
+        Set<String> tokens = tokenize(text);
+        Set<String> oldTokens = tokensById.get(id);
+        if (tokens.equals(oldTokens)) {
+            return false;
+        }
+        if (oldTokens != null) {
+            for (String token : oldTokens) {
+                if (!tokens.contains(token)) {
+                    removePosting(token, id);
+                }
+            }
+        }
+        for (String token : tokens) {
+            if (oldTokens == null || !oldTokens.contains(token)) {
+                addPosting(token, id);
+            }
+        }
+        tokensById.put(id, tokens);
+        return true;
+    }
+
+    /**
+     * Remove the reminder with the given ID from the index.
+     *
+     * @param id
+     * @return whether the index changed
+     */
+    public synchronized boolean remove(int id) {
+        Set<String> tokens = tokensById.remove(id);
+        if (tokens == null) {
+            return false;
+        }
+        for (String token : tokens) {
+            removePosting(token, id);
+        }
+        return true;
+    }
+
+    private void addPosting(String token, int id) {
+        Set<Integer> ids = postings.get(token);
+        if (ids == null) {
+            ids = new HashSet<>();
+            postings.put(token, ids);
+        }
+        ids.add(id);
+    }
+
+    private void removePosting(String token, int id) {
+        Set<Integer> ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Find the reminders matching the query. A reminder matches if for every token of the query it contains a token starting with it.
+     *
+     * @param query
+     * @return the IDs of matching reminders; empty if the query contains no tokens
+     */
+    public synchronized Set<Integer> search(String query) {
+        Set<Integer> result = new HashSet<>();
+        boolean first = true;
+        for (String queryToken : tokenize(query)) {
+            Set<Integer> matches = new HashSet<>();
+            for (Set<Integer> ids : postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, true).values()) {
+                matches.addAll(ids);
+            }
+            if (first) {
+                result = matches;
+                first = false;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return tokensById.size();
+    }
+
+    /**
+     * Serialize the index. Only the postings are stored, the rest is derived when loading.
+     *
+     * @return
+     */
+    public synchronized String toJson() {
+        Map<String, List<Integer>> stored = new HashMap<>();
+        for (Map.Entry<String, Set<Integer>> e : postings.entrySet()) {
+            stored.put(e.getKey(), new ArrayList<>(e.getValue()));
+        }
+        return Codecs.get().getPostingsAdapter().toJson(stored);
+    }
+
+    public static SearchIndex fromJson(String json) {
+        Map<String, List<Integer>> stored = Codecs.decode(Codecs.get().getPostingsAdapter(), json);
+        SearchIndex index = new SearchIndex();
+        for (Map.Entry<String, List<Integer>> e : stored.entrySet()) {
+            index.postings.put(e.getKey(), new HashSet<>(e.getValue()));
+            for (Integer id : e.getValue()) {
+                Set<String> tokens = index.tokensById.get(id);
+                if (tokens == null) {
+                    tokens = new LinkedHashSet<>();
+                    index.tokensById.put(id, tokens);
+                }
+                tokens.add(e.getKey());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Build an index of the given reminders.
+     *
+     * @param reminders
+     * @return
+     */
+    public static SearchIndex of(Iterable<Reminder> reminders) {
+        SearchIndex index = new SearchIndex();
+        for (Reminder reminder : reminders) {
+            index.put(reminder.getId(), reminder.getText());
+        }
+        return index;
+    }
+}
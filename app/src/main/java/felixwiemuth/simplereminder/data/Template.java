@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import androidx.annotation.NonNull;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A template for quickly creating reminders with a given text, due at a given time of day or after a given time.
+ *
+ * @author Felix Wiemuth
+ */
+@Getter
+public class Template {
+
+    public enum TimeType {
+        /**
+         * The reminder is due at the next occurrence of the time of day given by {@link #minutes} (minutes after midnight).
+         */
+        TIME_OF_DAY,
+        /**
+         * The reminder is due {@link #minutes} minutes after it is created.
+         */
+        RELATIVE
+    }
+
+    private int id;
+    private String text;
+    private TimeType timeType;
+    private int minutes;
+
+    @Builder
+    public Template(int id, @NonNull String text, @NonNull TimeType timeType, int minutes) {
+        if (minutes < 0 || timeType == TimeType.TIME_OF_DAY && minutes >= 24 * 60) {
+            throw new IllegalArgumentException("Invalid minutes: " + minutes);
+        }
+        this.id = id;
+        this.text = text;
+        this.timeType = timeType;
+        this.minutes = minutes;
+    }
+
+    /**
+     * Get the date a reminder created from this template at the given time is due.
+     *
+     * @param now
+     * @return
+     */
+    public Date getNextDate(Date now) {
+        Calendar time = Calendar.getInstance();
+        time.setTime(now);
+        if (timeType == TimeType.RELATIVE) {
+            time.add(Calendar.MINUTE, minutes);
+            return time.getTime();
+        }
+        time.set(Calendar.HOUR_OF_DAY, minutes / 60);
+        time.set(Calendar.MINUTE, minutes % 60);
+        time.set(Calendar.SECOND, 0);
+        // If the resulting date is in the past, the next day is meant
+        if (!time.getTime().after(now)) {
+            time.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return time.getTime();
+    }
+
+    public static String toJson(List<Template> templates) {
+        return Codecs.get().getTemplateListAdapter().toJson(templates);
+    }
+
+    public static List<Template> fromJson(String json) {
+        return Codecs.decode(Codecs.get().getTemplateListAdapter(), json);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.provider;
+
+import android.database.AbstractCursor;
+import android.database.Cursor;
+
+import java.util.Arrays;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * A cursor over the rows of a {@link ReminderQueryIndex.Selection}. Values are read from the reminder of the current row when requested, and a cursor passed to another process fills its windows only with the rows the client moves to (see {@link AbstractCursor#fillWindow(int, android.database.CursorWindow)}).
+ *
+ * @author Felix Wiemuth
+ */
+class ReminderCursor extends AbstractCursor {
+
+    private static final int COLUMN_ID = 0;
+    private static final int COLUMN_TEXT = 1;
+    private static final int COLUMN_DATE = 2;
+    private static final int COLUMN_STATUS = 3;
+    private static final int COLUMN_RECURRING = 4;
+
+    private final ReminderQueryIndex.Selection selection;
+    private final String[] columnNames;
+    /**
+     * For each column of the cursor, its index in {@link RemindersContract.Reminders#ALL_COLUMNS}.
+     */
+    private final int[] columns;
+
+    /**
+     * @param selection
+     * @param projection the columns, null for all
+     * @throws IllegalArgumentException if the projection contains an unknown column
+     */
+    ReminderCursor(ReminderQueryIndex.Selection selection, String[] projection) {
+        this.selection = selection;
+        this.columnNames = projection != null ? projection : RemindersContract.Reminders.ALL_COLUMNS;
+        this.columns = new int[columnNames.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.asList(RemindersContract.Reminders.ALL_COLUMNS).indexOf(columnNames[i]);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown column " + columnNames[i] + ".");
+            }
+        }
+    }
+
+    private Reminder getReminder() {
+        return selection.get(getPosition());
+    }
+
+    @Override
+    public int getCount() {
+        return selection.getCount();
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public String getString(int column) {
+        Reminder reminder = getReminder();
+        switch (columns[column]) {
+            case COLUMN_TEXT:
+                return reminder.getText();
+            case COLUMN_STATUS:
+                return reminder.getStatus().name();
+            default:
+                return Long.toString(getLong(column));
+        }
+    }
+
+    @Override
+    public long getLong(int column) {
+        Reminder reminder = getReminder();
+        switch (columns[column]) {
+            case COLUMN_ID:
+                return reminder.getId();
+            case COLUMN_DATE:
+                return reminder.getDate().getTime();
+            case COLUMN_RECURRING:
+                return reminder.isRecurring() ? 1 : 0;
+            default:
+                throw new NumberFormatException("Column " + columnNames[column] + " is not numeric.");
+        }
+    }
+
+    @Override
+    public short getShort(int column) {
+        return (short) getLong(column);
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public float getFloat(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return false;
+    }
+
+    @Override
+    public int getType(int column) {
+        switch (columns[column]) {
+            case COLUMN_TEXT:
+            case COLUMN_STATUS:
+                return Cursor.FIELD_TYPE_STRING;
+            default:
+                return Cursor.FIELD_TYPE_INTEGER;
+        }
+    }
+}
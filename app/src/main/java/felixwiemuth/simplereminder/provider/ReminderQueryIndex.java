@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * An immutable index over a snapshot of the reminders answering queries by status and date range. The reminders are kept sorted by date, once for all and once per status, so that a query for all or a single status is a range found by binary search. Other queries only collect the positions of the matching reminders. Rows are read from the index when accessed, so a query does not copy the reminders.
+ *
+ * @author Felix Wiemuth
+ */
+class ReminderQueryIndex {
+
+    private static final Comparator<Reminder> BY_DATE = (r1, r2) -> {
+        int c = r1.getDate().compareTo(r2.getDate());
+        return c != 0 ? c : Integer.compare(r1.getId(), r2.getId());
+    };
+
+    /**
+     * The rows of a query. Offset and limit are applied after ordering.
+     */
+    static class Selection {
+        private final Reminder[] source;
+        /**
+         * The positions of the matching reminders in {@link #source}, null if they are the range starting at {@link #start}.
+         */
+        private final int[] positions;
+        private final int start;
+        private final int matching;
+        private final boolean descending;
+        private final int offset;
+        private final int count;
+
+        Selection(Reminder[] source, int[] positions, int start, int matching, boolean descending, int offset, int limit) {
+            this.source = source;
+            this.positions = positions;
+            this.start = start;
+            this.matching = matching;
+            this.descending = descending;
+            this.offset = offset;
+            this.count = Math.max(0, Math.min(limit, matching - offset));
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * @return the number of matching reminders, disregarding offset and limit
+         */
+        int getMatchingCount() {
+            return matching;
+        }
+
+        Reminder get(int row) {
+            if (row < 0 || row >= count) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + count + ".");
+            }
+            int i = row + offset;
+            if (descending) {
+                i = matching - 1 - i;
+            }
+            return source[positions == null ? start + i : positions[i]];
+        }
+    }
+
+    private final Reminder[] all;
+    private final Reminder[][] byStatus;
+
+    /**
+     * Create an index over the given reminders, which must not be changed afterwards.
+     *
+     * @param reminders
+     */
+    ReminderQueryIndex(List<Reminder> reminders) {
+        all = reminders.toArray(new Reminder[0]);
+        Arrays.sort(all, BY_DATE);
+        List<List<Reminder>> lists = new ArrayList<>();
+        for (int i = 0; i < Reminder.Status.values().length; i++) {
+            lists.add(new ArrayList<>());
+        }
+        for (Reminder reminder : all) {
+            lists.get(reminder.getStatus().ordinal()).add(reminder); // stays sorted
+        }
+        byStatus = new Reminder[lists.size()][];
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = lists.get(i).toArray(new Reminder[0]);
+        }
+    }
+
+    int size() {
+        return all.length;
+    }
+
+    /**
+     * Select the reminders with one of the given statuses due in the given time range, ordered by date (and ID for the same date).
+     *
+     * @param statuses   the statuses to select, null for all
+     * @param from       start of the time range in milliseconds since the epoch (inclusive)
+     * @param to         end of the time range in milliseconds since the epoch (exclusive)
+     * @param descending whether to order by descending date
+     * @param offset     the number of matching reminders to skip
+     * @param limit      the maximum number of reminders to select
+     * @return
+     */
+    Selection select(Set<Reminder.Status> statuses, long from, long to, boolean descending, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative.");
+        }
+        if (statuses != null && statuses.size() == 1) {
+            Reminder[] source = byStatus[statuses.iterator().next().ordinal()];
+            return selectRange(source, from, to, descending, offset, limit);
+        }
+        if (statuses == null || statuses.containsAll(EnumSet.allOf(Reminder.Status.class))) {
+            return selectRange(all, from, to, descending, offset, limit);
+        }
+        int start = lowerBound(all, from);
+        int end = Math.max(start, lowerBound(all, to));
+        int[] positions = new int[end - start];
+        int matching = 0;
+        for (int i = start; i < end; i++) {
+            if (statuses.contains(all[i].getStatus())) {
+                positions[matching++] = i;
+            }
+        }
+        return new Selection(all, positions, 0, matching, descending, offset, limit);
+    }
+
+    private static Selection selectRange(Reminder[] source, long from, long to, boolean descending, int offset, int limit) {
+        int start = lowerBound(source, from);
+        int end = Math.max(start, lowerBound(source, to));
+        return new Selection(source, null, start, end - start, descending, offset, limit);
+    }
+
+    /**
+     * Select the reminder with the given ID.
+     *
+     * @param id
+     * @return a selection containing the reminder or nothing if it does not exist
+     */
+    Selection selectId(int id) {
+        for (int i = 0; i < all.length; i++) {
+            if (all[i].getId() == id) {
+                return new Selection(all, null, i, 1, false, 0, 1);
+            }
+        }
+        return new Selection(all, null, 0, 0, false, 0, 0);
+    }
+
+    /**
+     * Find the position of the first reminder which is due at or after the given time.
+     *
+     * @param reminders sorted by date
+     * @param time
+     * @return
+     */
+    private static int lowerBound(Reminder[] reminders, long time) {
+        int low = 0;
+        int high = reminders.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (reminders[mid].getDate().getTime() < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.provider;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.provider.BaseColumns;
+
+/**
+ * The contract of {@link RemindersProvider}, which gives other apps read access to the reminders. Requires the permission {@link #PERMISSION_READ_REMINDERS}.
+ *
+ * @author Felix Wiemuth
+ */
+public final class RemindersContract {
+
+    public static final String AUTHORITY = "felixwiemuth.simplereminder.reminders";
+
+    public static final Uri AUTHORITY_URI = Uri.parse("content://" + AUTHORITY);
+
+    public static final String PERMISSION_READ_REMINDERS = "felixwiemuth.simplereminder.permission.READ_REMINDERS";
+
+    private RemindersContract() {
+    }
+
+    /**
+     * The reminders. Queries select reminders by the query parameters {@link #PARAM_STATUS}, {@link #PARAM_FROM} and {@link #PARAM_TO} instead of a selection and can be paged with {@link #PARAM_OFFSET} and {@link #PARAM_LIMIT}. The only supported sort orders are {@link #SORT_ORDER_DATE_ASC} (the default) and {@link #SORT_ORDER_DATE_DESC}. Rows are read when the cursor reaches them, so large results do not have to be read at once.
+     */
+    public static final class Reminders implements BaseColumns {
+
+        public static final Uri CONTENT_URI = Uri.withAppendedPath(AUTHORITY_URI, "reminders");
+
+        public static final String CONTENT_TYPE = ContentResolver.CURSOR_DIR_BASE_TYPE + "/vnd.felixwiemuth.simplereminder.reminder";
+
+        public static final String CONTENT_ITEM_TYPE = ContentResolver.CURSOR_ITEM_BASE_TYPE + "/vnd.felixwiemuth.simplereminder.reminder";
+
+        /**
+         * The text of the reminder. Type: TEXT
+         */
+        public static final String TEXT = "text";
+
+        /**
+         * The due date (for recurring reminders the next occurrence) in milliseconds since the epoch. Type: INTEGER
+         */
+        public static final String DATE = "date";
+
+        /**
+         * The status, one of {@link #STATUS_SCHEDULED}, {@link #STATUS_NOTIFIED} and {@link #STATUS_DONE}. Type: TEXT
+         */
+        public static final String STATUS = "status";
+
+        /**
+         * Whether the reminder repeats, 1 or 0. Type: INTEGER
+         */
+        public static final String RECURRING = "recurring";
+
+        public static final String STATUS_SCHEDULED = "SCHEDULED";
+        public static final String STATUS_NOTIFIED = "NOTIFIED";
+        public static final String STATUS_DONE = "DONE";
+
+        /**
+         * Query parameter selecting reminders by status: a comma-separated list of statuses.
+         */
+        public static final String PARAM_STATUS = "status";
+
+        /**
+         * Query parameter selecting reminders due at or after the given time in milliseconds since the epoch.
+         */
+        public static final String PARAM_FROM = "from";
+
+        /**
+         * Query parameter selecting reminders due before the given time in milliseconds since the epoch.
+         */
+        public static final String PARAM_TO = "to";
+
+        /**
+         * Query parameter giving the number of selected reminders to skip.
+         */
+        public static final String PARAM_OFFSET = "offset";
+
+        /**
+         * Query parameter giving the maximum number of reminders to return.
+         */
+        public static final String PARAM_LIMIT = "limit";
+
+        public static final String SORT_ORDER_DATE_ASC = DATE + " ASC";
+        public static final String SORT_ORDER_DATE_DESC = DATE + " DESC";
+
+        static final String[] ALL_COLUMNS = {_ID, TEXT, DATE, STATUS, RECURRING};
+
+        private Reminders() {
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.provider;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.UriMatcher;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import felixwiemuth.simplereminder.ReminderManager;
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * Gives other apps read access to the reminders, see {@link RemindersContract}. Queries are answered from a {@link ReminderQueryIndex}, which is rebuilt only when the reminders changed since the last query.
+ *
+ * @author Felix Wiemuth
+ */
+public class RemindersProvider extends ContentProvider {
+
+    private static final int MATCH_REMINDERS = 1;
+    private static final int MATCH_REMINDER_ID = 2;
+
+    private static final UriMatcher uriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
+
+    static {
+        uriMatcher.addURI(RemindersContract.AUTHORITY, "reminders", MATCH_REMINDERS);
+        uriMatcher.addURI(RemindersContract.AUTHORITY, "reminders/#", MATCH_REMINDER_ID);
+    }
+
+    private ReminderQueryIndex index;
+
+    /**
+     * The store version of the reminders in {@link #index}.
+     */
+    private long indexVersion = -1;
+
+    @Override
+    public boolean onCreate() {
+        return true;
+    }
+
+    /**
+     * Get the index of the current reminders, rebuilding it if the reminders changed.
+     *
+     * @return
+     */
+    private synchronized ReminderQueryIndex getIndex() {
+        Context context = getContext();
+        long version = ReminderManager.getStoreVersion(context); // read before the reminders, so that a later change leads to a rebuild
+        if (index == null || version != indexVersion) {
+            index = new ReminderQueryIndex(ReminderManager.getReminders(context));
+            indexVersion = version;
+        }
+        return index;
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(@NonNull Uri uri, @Nullable String[] projection, @Nullable String selection, @Nullable String[] selectionArgs, @Nullable String sortOrder) {
+        if (selection != null) {
+            throw new IllegalArgumentException("Selections are not supported, use the query parameters of " + RemindersContract.Reminders.class.getName() + ".");
+        }
+        ReminderQueryIndex.Selection rows;
+        switch (uriMatcher.match(uri)) {
+            case MATCH_REMINDERS:
+                rows = getIndex().select(
+                        parseStatuses(uri.getQueryParameter(RemindersContract.Reminders.PARAM_STATUS)),
+                        parseLong(uri, RemindersContract.Reminders.PARAM_FROM, Long.MIN_VALUE, Long.MAX_VALUE),
+                        parseLong(uri, RemindersContract.Reminders.PARAM_TO, Long.MAX_VALUE, Long.MAX_VALUE),
+                        parseSortOrder(sortOrder),
+                        (int) parseLong(uri, RemindersContract.Reminders.PARAM_OFFSET, 0, Integer.MAX_VALUE),
+                        (int) parseLong(uri, RemindersContract.Reminders.PARAM_LIMIT, Integer.MAX_VALUE, Integer.MAX_VALUE));
+                break;
+            case MATCH_REMINDER_ID:
+                rows = getIndex().selectId((int) parseId(uri));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+        Cursor cursor = new ReminderCursor(rows, projection);
+        cursor.setNotificationUri(getContext().getContentResolver(), RemindersContract.Reminders.CONTENT_URI);
+        return cursor;
+    }
+
+    private static long parseId(Uri uri) {
+        try {
+            return Long.parseLong(uri.getLastPathSegment());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID in " + uri, e);
+        }
+    }
+
+    private static Set<Reminder.Status> parseStatuses(String value) {
+        if (value == null) {
+            return null;
+        }
+        Set<Reminder.Status> statuses = EnumSet.noneOf(Reminder.Status.class);
+        for (String status : value.split(",")) {
+            try {
+                statuses.add(Reminder.Status.valueOf(status.trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status " + status + ".", e);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Parse the given query parameter as a number.
+     *
+     * @param uri
+     * @param parameter
+     * @param defaultValue the value if the parameter is not given
+     * @param max          the maximum valid value
+     * @return
+     * @throws IllegalArgumentException if the value is not a number or greater than the maximum
+     */
+    private static long parseLong(Uri uri, String parameter, long defaultValue, long max) {
+        String value = uri.getQueryParameter(parameter);
+        if (value == null) {
+            return defaultValue;
+        }
+        long result;
+        try {
+            result = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of " + parameter + ": " + value, e);
+        }
+        if (result > max) {
+            throw new IllegalArgumentException("Invalid value of " + parameter + ": " + value);
+        }
+        return result;
+    }
+
+    /**
+     * @param sortOrder
+     * @return whether the order is descending
+     */
+    private static boolean parseSortOrder(String sortOrder) {
+        if (sortOrder == null || sortOrder.trim().equalsIgnoreCase(RemindersContract.Reminders.SORT_ORDER_DATE_ASC)
+                || sortOrder.trim().equalsIgnoreCase(RemindersContract.Reminders.DATE)) {
+            return false;
+        } else if (sortOrder.trim().equalsIgnoreCase(RemindersContract.Reminders.SORT_ORDER_DATE_DESC)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort order " + sortOrder);
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+        switch (uriMatcher.match(uri)) {
+            case MATCH_REMINDERS:
+                return RemindersContract.Reminders.CONTENT_TYPE;
+            case MATCH_REMINDER_ID:
+                return RemindersContract.Reminders.CONTENT_ITEM_TYPE;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
+        throw new UnsupportedOperationException("Reminders are read-only.");
+    }
+
+    @Override
+    public int delete(@NonNull Uri uri, @Nullable String selection, @Nullable String[] selectionArgs) {
+        throw new UnsupportedOperationException("Reminders are read-only.");
+    }
+
+    @Override
+    public int update(@NonNull Uri uri, @Nullable ContentValues values, @Nullable String selection, @Nullable String[] selectionArgs) {
+        throw new UnsupportedOperationException("Reminders are read-only.");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import felixwiemuth.simplereminder.data.Codecs;
+
+/**
+ * A {@link SyncTransport} using a directory shared by all devices, e.g. by a file synchronization tool. Each device appends its records to its own log file, one JSON record per line, so that devices never write the same file. The cursor stores the read position in the log of each other device, so that reading only reads new records.
+ *
+ * @author Felix Wiemuth
+ */
+public class DirectorySyncTransport implements SyncTransport {
+
+    private static final String LOG_SUFFIX = ".log";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final TypeAdapter<SyncRecord> recordAdapter = Codecs.get().getGson().getAdapter(SyncRecord.class);
+    private static final TypeAdapter<Map<String, Long>> cursorAdapter = Codecs.get().getGson().getAdapter(new TypeToken<Map<String, Long>>() {
+    });
+
+    private final File directory;
+    private final String ownLog;
+
+    /**
+     * @param directory the shared directory
+     * @param deviceId  the ID of this device, which must be a valid file name
+     */
+    public DirectorySyncTransport(File directory, String deviceId) {
+        this.directory = directory;
+        this.ownLog = deviceId + LOG_SUFFIX;
+    }
+
+    @Override
+    public Changes read(String cursor) throws IOException {
+        Map<String, Long> positions = cursor == null ? new HashMap<>() : decodeCursor(cursor);
+        List<SyncRecord> records = new ArrayList<>();
+        File[] logs = directory.listFiles((dir, name) -> name.endsWith(LOG_SUFFIX) && !name.equals(ownLog));
+        if (logs != null) {
+            for (File log : logs) {
+                Long position = positions.get(log.getName());
+                positions.put(log.getName(), readLog(log, position == null ? 0 : position, records));
+            }
+        }
+        return new Changes(records, cursorAdapter.toJson(positions));
+    }
+
+    /**
+     * Read the complete lines of the given log after the given position.
+     *
+     * @param log
+     * @param position
+     * @param records  the list to add the read records to
+     * @return the position after the last complete line
+     * @throws IOException
+     */
+    private static long readLog(File log, long position, List<SyncRecord> records) throws IOException {
+        try (FileChannel channel = new FileInputStream(log).getChannel()) {
+            long size = channel.size();
+            if (size < position) {
+                position = 0; // the log was replaced, reading it again is harmless
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - position));
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) != -1) {
+                // read the rest of the log
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    String line = new String(bytes, lineStart, i - lineStart, UTF_8);
+                    if (!line.trim().isEmpty()) {
+                        try {
+                            records.add(recordAdapter.fromJson(line));
+                        } catch (JsonParseException | IOException | IllegalStateException e) {
+                            throw new IOException("Invalid record in " + log.getName() + " at position " + (position + lineStart) + ".", e);
+                        }
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            return position + lineStart; // an incomplete last line is read again next time
+        }
+    }
+
+    private static Map<String, Long> decodeCursor(String cursor) throws IOException {
+        try {
+            return Codecs.decode(cursorAdapter, cursor);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid cursor.", e);
+        }
+    }
+
+    @Override
+    public void publish(List<SyncRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (SyncRecord record : records) {
+            out.write(recordAdapter.toJson(record).getBytes(UTF_8));
+            out.write('\n');
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory + ".");
+        }
+        try (FileOutputStream log = new FileOutputStream(new File(directory, ownLog), true)) {
+            log.write(out.toByteArray()); // written at once, so that other devices see complete lines
+            log.getFD().sync();
+        }
+    }
+}
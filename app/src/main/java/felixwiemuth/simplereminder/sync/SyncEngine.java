@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * Synchronizes the reminders of this device with other devices via a {@link SyncTransport}. Only changes are exchanged: the changes published by other devices since the last synchronization are read and applied, then the local changes recorded in the {@link SyncState} since then are published. The work thus depends on the number of changes, not on the number of reminders.
+ * <p>
+ * Of concurrent changes of the same reminder, the newest version according to {@link SyncRecord#isNewer(long, String, long, String)} wins on all devices, also if one of the changes is a deletion.
+ *
+ * @author Felix Wiemuth
+ */
+public class SyncEngine {
+
+    /**
+     * Time after which tombstones are pruned. A device which did not synchronize for longer might add reminders deleted in the meantime again.
+     */
+    static final long TOMBSTONE_RETENTION_MILLIS = 90L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Access to the reminders of this device.
+     */
+    public interface LocalStore {
+        /**
+         * Get the current reminders with the given IDs.
+         *
+         * @param ids
+         * @return the reminders by ID, not containing IDs of reminders which do not exist
+         */
+        Map<Integer, Reminder> getReminders(Set<Integer> ids);
+
+        /**
+         * Apply changes received from other devices together.
+         *
+         * @param updated reminders replacing the reminders with the same IDs
+         * @param added   new reminders, which get new IDs
+         * @param removed IDs of the reminders to remove
+         * @return the IDs assigned to the added reminders, in the same order
+         */
+        int[] apply(List<Reminder> updated, List<Reminder> added, Set<Integer> removed);
+
+        /**
+         * Run the given operation with exclusive access to the reminders and the sync state. The other methods of the store and changes of the sync state are only called from such operations, while the transport is used outside of them.
+         *
+         * @param operation
+         */
+        void runExclusively(Runnable operation);
+    }
+
+    public static class Result {
+        private final int received;
+        private final int sent;
+
+        Result(int received, int sent) {
+            this.received = received;
+            this.sent = sent;
+        }
+
+        /**
+         * @return the number of reminders changed by changes of other devices
+         */
+        public int getReceived() {
+            return received;
+        }
+
+        /**
+         * @return the number of published changes
+         */
+        public int getSent() {
+            return sent;
+        }
+    }
+
+    /**
+     * Synchronize the reminders of the given store. The state is updated also if the synchronization fails after the received changes have been applied; changes which were not published are published by the next synchronization.
+     * <p>
+     * Reading and publishing changes are done without exclusive access to the store (see {@link LocalStore#runExclusively(Runnable)}), so a slow transport does not block other changes of the reminders. Local changes made in the meantime are published by the next synchronization. Synchronizations of the same state should not run concurrently.
+     *
+     * @param state
+     * @param store
+     * @param transport
+     * @return
+     * @throws IOException if reading or publishing changes fails
+     */
+    public static Result sync(SyncState state, LocalStore store, SyncTransport transport) throws IOException {
+        String[] cursor = new String[1];
+        store.runExclusively(() -> cursor[0] = state.getCursor());
+        SyncTransport.Changes changes = transport.read(cursor[0]);
+
+        int[] received = new int[1];
+        List<SyncRecord> records = new ArrayList<>();
+        store.runExclusively(() -> {
+            received[0] = receive(state, store, changes);
+            state.pruneTombstones(System.currentTimeMillis() - TOMBSTONE_RETENTION_MILLIS);
+            records.addAll(collectChanges(state, store));
+        });
+
+        if (!records.isEmpty()) {
+            transport.publish(records);
+            store.runExclusively(() -> state.onPublished(records));
+        }
+        return new Result(received[0], records.size());
+    }
+
+    private static int receive(SyncState state, LocalStore store, SyncTransport.Changes changes) {
+        // Only the newest received version of each reminder matters
+        Map<String, SyncRecord> newest = new LinkedHashMap<>();
+        for (SyncRecord record : changes.getRecords()) {
+            state.observe(record.getVersion());
+            SyncRecord other = newest.get(record.getUid());
+            if (other == null || SyncRecord.isNewer(record.getVersion(), record.getOrigin(), other.getVersion(), other.getOrigin())) {
+                newest.put(record.getUid(), record);
+            }
+        }
+
+        List<Reminder> updated = new ArrayList<>();
+        List<SyncRecord> updatedRecords = new ArrayList<>();
+        List<Reminder> added = new ArrayList<>();
+        List<SyncRecord> addedRecords = new ArrayList<>();
+        Set<Integer> removed = new HashSet<>();
+        List<SyncRecord> deletions = new ArrayList<>();
+        for (SyncRecord record : newest.values()) {
+            Integer id = state.getId(record.getUid());
+            SyncState.Version current = id != null ? state.getVersion(id) : state.getTombstone(record.getUid());
+            if (current != null && !current.isOlderThan(record)) {
+                continue; // also skips own changes
+            }
+            if (record.isDeleted()) {
+                if (id != null) {
+                    removed.add(id);
+                }
+                deletions.add(record);
+            } else if (id != null) {
+                updated.add(record.getReminder().copyWithId(id));
+                updatedRecords.add(record);
+            } else {
+                added.add(record.getReminder());
+                addedRecords.add(record);
+            }
+        }
+
+        // Only update the state after the changes have been applied
+        if (!updated.isEmpty() || !added.isEmpty() || !removed.isEmpty()) {
+            int[] addedIds = store.apply(updated, added, removed);
+            for (int i = 0; i < addedIds.length; i++) {
+                state.applyReceived(addedIds[i], addedRecords.get(i));
+            }
+        }
+        for (int i = 0; i < updated.size(); i++) {
+            state.applyReceived(updated.get(i).getId(), updatedRecords.get(i));
+        }
+        for (SyncRecord deletion : deletions) {
+            state.applyReceivedDeletion(deletion);
+        }
+        state.setCursor(changes.getCursor());
+        return updated.size() + added.size() + removed.size();
+    }
+
+    /**
+     * Create the records of the local changes to be published.
+     *
+     * @param state
+     * @param store
+     * @return
+     */
+    private static List<SyncRecord> collectChanges(SyncState state, LocalStore store) {
+        List<SyncRecord> records = new ArrayList<>();
+        if (!state.hasChanges()) {
+            return records;
+        }
+        Map<Integer, Reminder> reminders = state.getChanged().isEmpty()
+                ? Collections.<Integer, Reminder>emptyMap()
+                : store.getReminders(state.getChanged());
+        for (Iterator<Integer> it = state.getChanged().iterator(); it.hasNext(); ) {
+            Integer id = it.next();
+            Reminder reminder = reminders.get(id);
+            SyncState.Version version = state.getVersion(id);
+            if (reminder != null && version != null) {
+                records.add(SyncRecord.of(version.getUid(), version.getVersion(), version.getOrigin(), reminder));
+            } else {
+                it.remove(); // the change was not saved
+            }
+        }
+        for (String uid : state.getDeleted()) {
+            SyncState.Version tombstone = state.getTombstone(uid);
+            records.add(SyncRecord.deletion(uid, tombstone.getVersion(), tombstone.getOrigin()));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * A version of a reminder exchanged between devices: its content or the information that it was deleted (a tombstone).
+ * <p>
+ * Reminders are identified across devices by a unique ID ({@link #getUid()}), as reminder IDs are only unique on one device. Versions are ordered by their version number (a logical clock advanced by every change and by every received version) and then by the ID of the device which made the change, so that all devices choose the same version of concurrent changes (see {@link #isNewer(long, String, long, String)}).
+ *
+ * @author Felix Wiemuth
+ */
+public class SyncRecord {
+    private String uid;
+    private long version;
+    private String origin;
+    private boolean deleted;
+    /**
+     * The content of the reminder, null if deleted. Its ID is the ID on the device {@link #origin}.
+     */
+    private Reminder reminder;
+
+    private SyncRecord(String uid, long version, String origin, boolean deleted, Reminder reminder) {
+        this.uid = uid;
+        this.version = version;
+        this.origin = origin;
+        this.deleted = deleted;
+        this.reminder = reminder;
+    }
+
+    public static SyncRecord of(String uid, long version, String origin, Reminder reminder) {
+        return new SyncRecord(uid, version, origin, false, reminder);
+    }
+
+    public static SyncRecord deletion(String uid, long version, String origin) {
+        return new SyncRecord(uid, version, origin, true, null);
+    }
+
+    /**
+     * Determine whether a version is newer than another one.
+     *
+     * @param version      the version number of the first version
+     * @param origin       the device which made the first version
+     * @param otherVersion
+     * @param otherOrigin
+     * @return true if the first version is newer, false if it is older or the same version
+     */
+    public static boolean isNewer(long version, String origin, long otherVersion, String otherOrigin) {
+        return version > otherVersion || version == otherVersion && origin.compareTo(otherOrigin) > 0;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the ID of the device which made this version
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Reminder getReminder() {
+        return reminder;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import felixwiemuth.simplereminder.data.Codecs;
+
+/**
+ * The synchronization state of the reminders of this device: the current version of each reminder, tombstones of deleted reminders, the changes not published yet and the cursor of the changes read from other devices.
+ * <p>
+ * Every local change of a reminder must be recorded with {@link #onChanged(int)} or {@link #onRemoved(int)}, which gives it a new version. Only these changes are published by the next synchronization (see {@link SyncEngine}).
+ *
+ * @author Felix Wiemuth
+ */
+public class SyncState {
+
+    /**
+     * A version of a reminder (see {@link SyncRecord}).
+     */
+    static class Version {
+        private final String uid;
+        private final long version;
+        private final String origin;
+
+        Version(String uid, long version, String origin) {
+            this.uid = uid;
+            this.version = version;
+            this.origin = origin;
+        }
+
+        String getUid() {
+            return uid;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        String getOrigin() {
+            return origin;
+        }
+
+        /**
+         * @param record
+         * @return whether the given record is a newer version than this one
+         */
+        boolean isOlderThan(SyncRecord record) {
+            return SyncRecord.isNewer(record.getVersion(), record.getOrigin(), version, origin);
+        }
+
+        /**
+         * @param record
+         * @return whether the given record has this version
+         */
+        boolean isVersionOf(SyncRecord record) {
+            return version == record.getVersion() && origin.equals(record.getOrigin());
+        }
+    }
+
+    /**
+     * The version of a deleted reminder together with the time when the deletion was made or received.
+     */
+    static class Tombstone extends Version {
+        private final long time;
+
+        Tombstone(String uid, long version, String origin, long time) {
+            super(uid, version, origin);
+            this.time = time;
+        }
+
+        long getTime() {
+            return time;
+        }
+    }
+
+    private String deviceId;
+    /**
+     * The highest version number created or seen.
+     */
+    private long clock;
+    private String cursor;
+    /**
+     * The generation of the log of changes recorded after this state was saved (see {@link SyncStateStore}).
+     */
+    private int logGeneration;
+    /**
+     * The versions of the current reminders, by reminder ID.
+     */
+    private Map<Integer, Version> versions = new HashMap<>();
+    /**
+     * The versions of deleted reminders, by unique ID. Kept to ignore older versions received later, until pruned (see {@link #pruneTombstones(long)}).
+     */
+    private Map<String, Tombstone> tombstones = new HashMap<>();
+    /**
+     * IDs of reminders changed since the last publication.
+     */
+    private Set<Integer> changed = new LinkedHashSet<>();
+    /**
+     * Unique IDs of reminders deleted since the last publication.
+     */
+    private Set<String> deleted = new LinkedHashSet<>();
+    /**
+     * Reminder IDs by unique ID, created on first use.
+     */
+    private transient Map<String, Integer> idsByUid;
+
+    private SyncState() {
+    }
+
+    /**
+     * Create the state of a device which did not synchronize yet.
+     *
+     * @param deviceId an ID which is unique among all devices
+     * @return
+     */
+    public static SyncState create(String deviceId) {
+        SyncState state = new SyncState();
+        state.deviceId = deviceId;
+        return state;
+    }
+
+    public static SyncState fromJson(String json) {
+        return Codecs.get().getGson().fromJson(json, SyncState.class);
+    }
+
+    public String toJson() {
+        return Codecs.get().getGson().toJson(this);
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Record that the reminder with the given ID was added or changed on this device.
+     *
+     * @param id
+     */
+    public void onChanged(int id) {
+        Version current = versions.get(id);
+        String uid = current != null ? current.getUid() : deviceId + "/" + id; // reminder IDs are never reused on a device
+        setVersion(id, new Version(uid, ++clock, deviceId));
+        changed.add(id);
+    }
+
+    /**
+     * Record that the reminder with the given ID was removed on this device.
+     *
+     * @param id
+     */
+    public void onRemoved(int id) {
+        Version current = removeVersion(id);
+        if (current == null) {
+            return; // never recorded
+        }
+        tombstones.put(current.getUid(), new Tombstone(current.getUid(), ++clock, deviceId, System.currentTimeMillis()));
+        changed.remove(id);
+        deleted.add(current.getUid());
+    }
+
+    /**
+     * @return whether there are changes which have not been published yet
+     */
+    public boolean hasChanges() {
+        return !changed.isEmpty() || !deleted.isEmpty();
+    }
+
+    String getCursor() {
+        return cursor;
+    }
+
+    void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    int getLogGeneration() {
+        return logGeneration;
+    }
+
+    void setLogGeneration(int logGeneration) {
+        this.logGeneration = logGeneration;
+    }
+
+    /**
+     * Advance the clock so that following changes get a higher version than the given one.
+     *
+     * @param version
+     */
+    void observe(long version) {
+        clock = Math.max(clock, version);
+    }
+
+    /**
+     * @param uid
+     * @return the ID of the current reminder with the given unique ID, null if there is none
+     */
+    Integer getId(String uid) {
+        if (idsByUid == null) {
+            idsByUid = new HashMap<>();
+            for (Map.Entry<Integer, Version> entry : versions.entrySet()) {
+                idsByUid.put(entry.getValue().getUid(), entry.getKey());
+            }
+        }
+        return idsByUid.get(uid);
+    }
+
+    Version getVersion(int id) {
+        return versions.get(id);
+    }
+
+    Tombstone getTombstone(String uid) {
+        return tombstones.get(uid);
+    }
+
+    /**
+     * @return the IDs of the reminders changed since the last publication, which may be removed from the returned set
+     */
+    Set<Integer> getChanged() {
+        return changed;
+    }
+
+    Set<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Mark the given records as published. Changes made after the records were created remain to be published.
+     *
+     * @param records
+     */
+    void onPublished(List<SyncRecord> records) {
+        for (SyncRecord record : records) {
+            if (record.isDeleted()) {
+                Tombstone tombstone = tombstones.get(record.getUid());
+                if (tombstone != null && tombstone.isVersionOf(record)) {
+                    deleted.remove(record.getUid());
+                }
+            } else {
+                Integer id = getId(record.getUid());
+                if (id != null && versions.get(id).isVersionOf(record)) {
+                    changed.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the published tombstones created before the given time. A version of a pruned reminder received afterwards adds the reminder again, so tombstones should be kept until all devices have synchronized.
+     *
+     * @param before time in milliseconds since the epoch
+     */
+    void pruneTombstones(long before) {
+        for (Iterator<Tombstone> it = tombstones.values().iterator(); it.hasNext(); ) {
+            Tombstone tombstone = it.next();
+            if (tombstone.getTime() < before && !deleted.contains(tombstone.getUid())) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Set the version of a reminder to a version received from another device. The reminder is not considered changed locally anymore.
+     *
+     * @param id
+     * @param record
+     */
+    void applyReceived(int id, SyncRecord record) {
+        setVersion(id, new Version(record.getUid(), record.getVersion(), record.getOrigin()));
+        tombstones.remove(record.getUid());
+        changed.remove(id);
+    }
+
+    /**
+     * Record a deletion received from another device.
+     *
+     * @param record
+     */
+    void applyReceivedDeletion(SyncRecord record) {
+        Integer id = getId(record.getUid());
+        if (id != null) {
+            removeVersion(id);
+            changed.remove(id);
+        }
+        tombstones.put(record.getUid(), new Tombstone(record.getUid(), record.getVersion(), record.getOrigin(), System.currentTimeMillis()));
+        deleted.remove(record.getUid());
+    }
+
+    private void setVersion(int id, Version version) {
+        versions.put(id, version);
+        if (idsByUid != null) {
+            idsByUid.put(version.getUid(), id);
+        }
+    }
+
+    private Version removeVersion(int id) {
+        Version version = versions.remove(id);
+        if (version != null && idsByUid != null) {
+            idsByUid.remove(version.getUid());
+        }
+        return version;
+    }
+}
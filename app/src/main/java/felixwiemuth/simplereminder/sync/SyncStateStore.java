@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import com.google.gson.JsonParseException;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+
+import felixwiemuth.simplereminder.util.ChecksummedFile;
+
+/**
+ * Persists a {@link SyncState} as a snapshot together with a log of the local changes recorded after it, so that recording a change appends a few bytes instead of rewriting the whole state.
+ * <p>
+ * Each log record consists of the reminder ID (4 bytes) and whether the reminder was removed (1 byte). Loading replays the log of the snapshot's generation on the snapshot, which gives the same versions as when the changes were recorded. Saving writes a snapshot with a new generation and deletes the other logs.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+public class SyncStateStore {
+
+    private static final int RECORD_SIZE = 5;
+
+    private static final String SNAPSHOT_FILE = "state";
+
+    private static final String LOG_PREFIX = "changes-";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File dir;
+    private final ChecksummedFile snapshot;
+
+    public SyncStateStore(File dir) {
+        this.dir = dir;
+        this.snapshot = new ChecksummedFile(new File(dir, SNAPSHOT_FILE));
+    }
+
+    private File getLogFile(int generation) {
+        return new File(dir, LOG_PREFIX + generation);
+    }
+
+    /**
+     * Load the saved state with the recorded changes.
+     *
+     * @return the state or null if none has been saved
+     * @throws IOException if the state cannot be read or is invalid
+     */
+    public SyncState load() throws IOException {
+        byte[] data = snapshot.read();
+        if (data == null) {
+            return null;
+        }
+        SyncState state;
+        try {
+            state = SyncState.fromJson(new String(data, UTF_8));
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid sync state.", e);
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(getLogFile(state.getLogGeneration())))) {
+            while (true) {
+                int id = in.readInt();
+                if (in.readBoolean()) {
+                    state.onRemoved(id);
+                } else {
+                    state.onChanged(id);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // No changes recorded
+        } catch (EOFException e) {
+            // End of log, a partial record from an interrupted write is ignored
+        }
+        return state;
+    }
+
+    /**
+     * Save the given state and start a new log of changes.
+     *
+     * @param state
+     * @throws IOException
+     */
+    public void save(SyncState state) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory " + dir);
+        }
+        int generation = state.getLogGeneration() + 1;
+        state.setLogGeneration(generation);
+        snapshot.write(state.toJson().getBytes(UTF_8));
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(LOG_PREFIX) && !file.getName().equals(getLogFile(generation).getName())) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Record that the reminder with the given ID was added or changed (see {@link SyncState#onChanged(int)}).
+     *
+     * @param state the loaded or last saved state
+     * @param id
+     * @throws IOException if appending to the log fails; the state then has to be saved to persist the change
+     */
+    public void recordChange(SyncState state, int id) throws IOException {
+        state.onChanged(id);
+        append(state.getLogGeneration(), id, false);
+    }
+
+    /**
+     * Record that the reminder with the given ID was removed (see {@link SyncState#onRemoved(int)}).
+     *
+     * @param state the loaded or last saved state
+     * @param id
+     * @throws IOException if appending to the log fails; the state then has to be saved to persist the change
+     */
+    public void recordRemoval(SyncState state, int id) throws IOException {
+        state.onRemoved(id);
+        append(state.getLogGeneration(), id, true);
+    }
+
+    private void append(int generation, int id, boolean removed) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory " + dir);
+        }
+        byte[] record = {(byte) (id >>> 24), (byte) (id >>> 16), (byte) (id >>> 8), (byte) id, (byte) (removed ? 1 : 0)};
+        try (RandomAccessFile file = new RandomAccessFile(getLogFile(generation), "rw")) {
+            long end = file.length() / RECORD_SIZE * RECORD_SIZE; // overwrite a partial record from an interrupted write
+            file.seek(end);
+            file.write(record);
+            file.setLength(end + RECORD_SIZE);
+            file.getFD().sync();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Exchanges versions of reminders with other devices. Each device publishes its changes, and reads the changes published by the other devices since its last read, identified by a cursor.
+ *
+ * @author Felix Wiemuth
+ */
+public interface SyncTransport {
+
+    class Changes {
+        private final List<SyncRecord> records;
+        private final String cursor;
+
+        public Changes(List<SyncRecord> records, String cursor) {
+            this.records = records;
+            this.cursor = cursor;
+        }
+
+        /**
+         * @return the records, in the order they were published
+         */
+        public List<SyncRecord> getRecords() {
+            return records;
+        }
+
+        /**
+         * @return the cursor to read the changes published after these
+         */
+        public String getCursor() {
+            return cursor;
+        }
+    }
+
+    /**
+     * Read the records published since the given cursor. May include records published by this device and records already read, which are then ignored.
+     *
+     * @param cursor a cursor returned by a previous read, null to read all records
+     * @return
+     * @throws IOException
+     */
+    Changes read(String cursor) throws IOException;
+
+    /**
+     * Publish the given records to the other devices.
+     *
+     * @param records
+     * @throws IOException
+     */
+    void publish(List<SyncRecord> records) throws IOException;
+}
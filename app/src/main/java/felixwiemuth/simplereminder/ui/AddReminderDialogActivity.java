@@ -22,22 +22,29 @@ import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
 import android.text.InputType;
-import android.text.format.DateUtils;
 import android.util.Log;
 import android.view.inputmethod.EditorInfo;
+import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
 import android.widget.Button;
+import android.widget.Spinner;
 import android.widget.TimePicker;
-import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
 
 import felixwiemuth.simplereminder.Prefs;
 import felixwiemuth.simplereminder.R;
 import felixwiemuth.simplereminder.ReminderManager;
+import felixwiemuth.simplereminder.TextSuggestions;
+import felixwiemuth.simplereminder.data.Recurrence;
 import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.ui.util.UIUtils;
 
 /**
  * Shows a dialog allowing to add a reminder. Finishes with {@link #RESULT_OK} if the reminder has been added.
@@ -49,11 +56,31 @@ public class AddReminderDialogActivity extends AppCompatActivity {
      */
     public static final String EXTRA_REMINDER_ID = "felixwiemuth.simplereminder.ui.AddReminderDialogActivity.extra.ID";
 
+    /**
+     * Positions of the recurrence options in {@code R.array.array_recurrence_names}.
+     */
+    private static final int RECURRENCE_NONE = 0;
+    private static final int RECURRENCE_HOURLY = 1;
+    private static final int RECURRENCE_DAILY = 2;
+    private static final int RECURRENCE_WEEKDAYS = 3;
+    private static final int RECURRENCE_WEEKLY = 4;
+    private static final int RECURRENCE_MONTHLY = 5;
+    /**
+     * Position of the option standing for the recurrence of the edited reminder if none of the other options describes it exactly. Only shown in that case.
+     */
+    private static final int RECURRENCE_CUSTOM = 6;
+
     /**
      * The ID of the reminder to be updated. "-1" means that a new reminder should be created.
      */
     private int reminderToUpdate = -1;
 
+    /**
+     * The recurrence of the reminder to be updated, which is kept if {@link #recurrenceToKeepPosition} is still selected, as the options might not describe it exactly (e.g., its interval or its days of week).
+     */
+    private Recurrence recurrenceToKeep;
+    private int recurrenceToKeepPosition = -1;
+
     public static Intent getIntentEditReminder(Context context, int reminderId) {
         return new Intent(context, AddReminderDialogActivity.class)
                 .putExtra(EXTRA_REMINDER_ID, reminderId)
@@ -68,11 +95,15 @@ public class AddReminderDialogActivity extends AppCompatActivity {
         final AutoCompleteTextView nameTextView = findViewById(R.id.nameTextView);
         final Button addButton = findViewById(R.id.addButton);
         final TimePicker timePicker = findViewById(R.id.timePicker);
+        final Spinner recurrenceSpinner = findViewById(R.id.recurrenceSpinner);
 
         nameTextView.setImeOptions(EditorInfo.IME_ACTION_DONE);
         nameTextView.setImeActionLabel(getString(R.string.keyboard_action_add_reminder), EditorInfo.IME_ACTION_DONE);
         nameTextView.requestFocus();
         nameTextView.setRawInputType(InputType.TYPE_CLASS_TEXT);
+        TextSuggestions.preload(this);
+        nameTextView.setAdapter(new TextSuggestionsAdapter(this));
+        nameTextView.setThreshold(1);
         nameTextView.setOnEditorActionListener((textView, actionId, keyEvent) -> {
             if (actionId == EditorInfo.IME_ACTION_DONE) {
                 addButton.callOnClick();
@@ -109,9 +140,14 @@ public class AddReminderDialogActivity extends AppCompatActivity {
                 time.add(Calendar.DAY_OF_MONTH, 1);  // wraps over end of month
             }
 
+            int recurrencePosition = recurrenceSpinner.getSelectedItemPosition();
+            Recurrence recurrence = recurrencePosition == recurrenceToKeepPosition ? recurrenceToKeep : makeRecurrence(recurrencePosition, time);
+            Date date = recurrence == null ? time.getTime() : recurrence.firstOccurrence(time.getTime());
+
             Reminder.ReminderBuilder reminderBuilder = Reminder.builder()
-                    .date(time.getTime())
-                    .text(nameTextView.getText().toString());
+                    .date(date)
+                    .text(nameTextView.getText().toString())
+                    .recurrence(recurrence);
             if (reminderToUpdate == -1) { // A new reminder should be created
                 ReminderManager.addReminder(AddReminderDialogActivity.this, reminderBuilder);
             } else { // A reminder should be replaced
@@ -120,18 +156,7 @@ public class AddReminderDialogActivity extends AppCompatActivity {
                 reminderToUpdate = -1;
             }
 
-            // Create relative description of due date
-            String relativeDueDate = DateUtils.getRelativeTimeSpanString(time.getTimeInMillis(), System.currentTimeMillis(), 0).toString();
-            // Convert first letter to lower case to use it in a sentence
-            if (relativeDueDate.length() > 0) {
-                relativeDueDate = relativeDueDate.substring(0, 1).toLowerCase() + relativeDueDate.substring(1);
-            }
-
-            // Create toast
-            String toastText = getString(R.string.toast_reminder_due, relativeDueDate);
-            int duration = Toast.LENGTH_LONG;
-            Toast toast = Toast.makeText(AddReminderDialogActivity.this, toastText, duration);
-            toast.show();
+            UIUtils.showReminderDueToast(date, AddReminderDialogActivity.this);
 
             setResult(RESULT_OK);
             finish(); //TODO change animation
@@ -140,6 +165,12 @@ public class AddReminderDialogActivity extends AppCompatActivity {
         Prefs.setAddReminderDialogUsed(this);
     }
 
+    @Override
+    protected void onPause() {
+        ReminderManager.savePendingUpdates(this); // the process might be killed after the user left
+        super.onPause();
+    }
+
     /**
      * Setup or reset the activity depending on whether a reminder should be edited or created (see {@link AddReminderDialogActivity#EXTRA_REMINDER_ID}).
      * Sets {@link #reminderToUpdate}, content of the text view, as well as the activity's title.
@@ -149,10 +180,21 @@ public class AddReminderDialogActivity extends AppCompatActivity {
     private void setupActivityWithPotentialReminder(Intent intent) {
         final int reminderId = intent.getIntExtra(EXTRA_REMINDER_ID, -1);
         final AutoCompleteTextView nameTextView = findViewById(R.id.nameTextView);
+        final Spinner recurrenceSpinner = findViewById(R.id.recurrenceSpinner);
+        setRecurrenceOptions(recurrenceSpinner, false);
+        recurrenceSpinner.setSelection(RECURRENCE_NONE);
+        recurrenceToKeep = null;
+        recurrenceToKeepPosition = -1;
         if (reminderId != -1) {
             try {
                 Reminder reminder = ReminderManager.getReminder(this, reminderId);
                 nameTextView.setText(reminder.getText());
+                recurrenceToKeep = reminder.getRecurrence();
+                recurrenceToKeepPosition = getRecurrencePosition(recurrenceToKeep);
+                if (recurrenceToKeepPosition == RECURRENCE_CUSTOM) {
+                    setRecurrenceOptions(recurrenceSpinner, true);
+                }
+                recurrenceSpinner.setSelection(recurrenceToKeepPosition);
                 // Move cursor to end of text
                 nameTextView.setSelection(nameTextView.length());
                 setTitle(R.string.edit_reminder_title);
@@ -168,6 +210,82 @@ public class AddReminderDialogActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Set the options of the recurrence spinner.
+     *
+     * @param recurrenceSpinner
+     * @param custom            whether to include the option {@link #RECURRENCE_CUSTOM}
+     */
+    private void setRecurrenceOptions(Spinner recurrenceSpinner, boolean custom) {
+        List<String> options = new ArrayList<>(Arrays.asList(getResources().getStringArray(R.array.array_recurrence_names)));
+        if (custom) {
+            options.add(getString(R.string.recurrence_custom));
+        }
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, options);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        recurrenceSpinner.setAdapter(adapter);
+    }
+
+    /**
+     * Create the recurrence for the given option of the recurrence spinner.
+     *
+     * @param position
+     * @param time     the time of the first occurrence, determines the day for weekly and monthly recurrence
+     * @return the recurrence or null if the reminder should not repeat
+     */
+    private static Recurrence makeRecurrence(int position, Calendar time) {
+        switch (position) {
+            case RECURRENCE_HOURLY:
+                return Recurrence.everyHours(1);
+            case RECURRENCE_DAILY:
+                return Recurrence.daily(1);
+            case RECURRENCE_WEEKDAYS:
+                return Recurrence.weekly(1, Calendar.MONDAY, Calendar.TUESDAY, Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY);
+            case RECURRENCE_WEEKLY:
+                return Recurrence.weekly(1, time.get(Calendar.DAY_OF_WEEK));
+            case RECURRENCE_MONTHLY:
+                return Recurrence.monthly(1, time.get(Calendar.DAY_OF_MONTH));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the option of the recurrence spinner which describes the given recurrence.
+     *
+     * @param recurrence
+     * @return the option, {@link #RECURRENCE_CUSTOM} if no other option describes the recurrence exactly
+     */
+    private static int getRecurrencePosition(Recurrence recurrence) {
+        if (recurrence == null) {
+            return RECURRENCE_NONE;
+        }
+        if (recurrence.getInterval() != 1) {
+            return RECURRENCE_CUSTOM;
+        }
+        switch (recurrence.getUnit()) {
+            case HOURLY:
+                return RECURRENCE_HOURLY;
+            case DAILY:
+                return RECURRENCE_DAILY;
+            case WEEKLY:
+                if (recurrence.equals(makeRecurrence(RECURRENCE_WEEKDAYS, null))) {
+                    return RECURRENCE_WEEKDAYS;
+                }
+                int days = 0;
+                for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+                    if (recurrence.isOnDayOfWeek(day)) {
+                        days++;
+                    }
+                }
+                return days == 1 ? RECURRENCE_WEEKLY : RECURRENCE_CUSTOM;
+            case MONTHLY:
+                return RECURRENCE_MONTHLY;
+            default:
+                return RECURRENCE_CUSTOM;
+        }
+    }
+
     /**
      * Process a new intent to this activity, updating its appereance and content depending on whether a reminder should be edited or created (see {@link AddReminderDialogActivity#EXTRA_REMINDER_ID}).
      *
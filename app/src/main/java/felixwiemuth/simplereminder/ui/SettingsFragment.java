@@ -36,6 +36,7 @@ import androidx.preference.PreferenceScreen;
 import felixwiemuth.simplereminder.Prefs;
 import felixwiemuth.simplereminder.R;
 import felixwiemuth.simplereminder.BootReceiver;
+import felixwiemuth.simplereminder.ReminderService;
 
 public class SettingsFragment extends PreferenceFragmentCompat implements SharedPreferences.OnSharedPreferenceChangeListener {
 
@@ -78,6 +79,9 @@ public class SettingsFragment extends PreferenceFragmentCompat implements Shared
                     BootReceiver.setBootReceiverEnabled(getContext(), false);
                 }
                 break;
+            case Prefs.PREF_KEY_QUICK_ADD_NOTIFICATION:
+                ReminderService.setQuickAddNotificationShown(getContext(), sharedPreferences.getBoolean(key, false));
+                break;
         }
     }
 
@@ -30,9 +30,11 @@ import felixwiemuth.simplereminder.ui.util.HtmlDialogFragment;
  * @author Felix Wiemuth
  */
 public class DisplayChangeLog implements HtmlDialogFragment.Action {
+    public static final String NAME = "display_changelog";
+
     @Override
     public String getName() {
-        return "display_changelog";
+        return NAME;
     }
 
     @Override
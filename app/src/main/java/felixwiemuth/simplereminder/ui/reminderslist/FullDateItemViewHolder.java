@@ -17,20 +17,25 @@
 
 package felixwiemuth.simplereminder.ui.reminderslist;
 
+import android.content.Context;
 import android.view.View;
-import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
-import felixwiemuth.simplereminder.R;
+import felixwiemuth.simplereminder.util.DateTimeUtil;
+
+import java.util.Date;
 
 /**
  * View holder for items where time and date is to be shown.
  */
 public class FullDateItemViewHolder extends ItemViewHolder {
-    final TextView dateView;
 
     public FullDateItemViewHolder(@NonNull View itemView) {
-        super(R.layout.reminder_card_datefield_full_date, (CardView) itemView);
-        dateView = itemView.findViewById(R.id.date);
+        super((CardView) itemView);
+    }
+
+    @Override
+    void setDate(Context context, Date date, String time) {
+        datefieldView.setText(DateTimeUtil.formatDate(context, date) + "\n" + time);
     }
 }
@@ -19,37 +19,45 @@ package felixwiemuth.simplereminder.ui.reminderslist;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.view.View;
-import android.view.ViewStub;
 import android.widget.TextView;
-import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 import felixwiemuth.simplereminder.R;
 
+import java.util.Date;
+
 /**
- * The base item view holder.
+ * The base item view holder. The layout of an item must contain a text view "datefield" showing the date and time of the reminder and a text view "description".
  */
-public class ItemViewHolder extends RecyclerView.ViewHolder {
+public abstract class ItemViewHolder extends RecyclerView.ViewHolder {
     final CardView itemView;
-    final View datefieldView;
+    final TextView datefieldView;
     private final ColorStateList cardBackgroundColor;
-    final TextView timeView;
     final TextView descriptionView;
+    /**
+     * The index of the displayed reminder in the selection of the list, set when binding the holder.
+     */
+    int selectionIndex;
 
-    ItemViewHolder(@LayoutRes int datefieldRes, @NonNull CardView itemView) {
+    ItemViewHolder(@NonNull CardView itemView) {
         super(itemView);
         this.itemView = itemView;
         this.descriptionView = itemView.findViewById(R.id.description);
         cardBackgroundColor = itemView.getCardBackgroundColor();
-        ViewStub datefieldViewStub = itemView.findViewById(R.id.datefield_stub);
-        datefieldViewStub.setLayoutResource(datefieldRes);
-        this.datefieldView = datefieldViewStub.inflate();
-        this.timeView = itemView.findViewById(R.id.time);
+        this.datefieldView = itemView.findViewById(R.id.datefield);
     }
 
+    /**
+     * Show the date of the reminder.
+     *
+     * @param context
+     * @param date
+     * @param time    the formatted time of the date, to be shown as is
+     */
+    abstract void setDate(Context context, Date date, String time);
+
     boolean isSelected() {
         return itemView.isSelected();
     }
@@ -59,6 +67,14 @@ public class ItemViewHolder extends RecyclerView.ViewHolder {
         itemView.setCardBackgroundColor(ContextCompat.getColor(context, R.color.bg_selected));
     }
 
+    void setSelected(Context context, boolean selected) {
+        if (selected) {
+            setSelected(context);
+        } else {
+            setUnselected();
+        }
+    }
+
     void setUnselected() {
         if (isSelected()) {
             itemView.setSelected(false);
@@ -18,19 +18,26 @@
 package felixwiemuth.simplereminder.ui.reminderslist;
 
 import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
 import android.provider.Settings;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.ViewGroup;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
@@ -45,15 +52,30 @@ import com.google.android.material.tabs.TabLayout;
 import de.cketti.library.changelog.ChangeLog;
 import felixwiemuth.simplereminder.Prefs;
 import felixwiemuth.simplereminder.R;
+import felixwiemuth.simplereminder.ReminderManager;
+import felixwiemuth.simplereminder.data.BackupFormat;
+import felixwiemuth.simplereminder.sync.DirectorySyncTransport;
+import felixwiemuth.simplereminder.sync.SyncEngine;
 import felixwiemuth.simplereminder.ui.AddReminderDialogActivity;
 import felixwiemuth.simplereminder.ui.SettingsActivity;
 import felixwiemuth.simplereminder.ui.actions.DisplayChangeLog;
 import felixwiemuth.simplereminder.ui.util.HtmlDialogFragment;
+import felixwiemuth.simplereminder.ui.util.StartupScheduler;
 import felixwiemuth.simplereminder.ui.util.UIUtils;
 import felixwiemuth.simplereminder.util.ImplementationError;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
 public class RemindersListActivity extends AppCompatActivity {
 
+    private static final int REQUEST_ADD_REMINDER = 0;
+    private static final int REQUEST_EXPORT = 1;
+    private static final int REQUEST_IMPORT = 2;
+    private static final String BACKUP_MIME_TYPE = "text/plain";
+
     /**
      * The {@link PagerAdapter} that will provide
      * fragments for each of the sections. We use a
@@ -61,6 +83,7 @@ public class RemindersListActivity extends AppCompatActivity {
      * loaded fragment in memory. If this becomes too memory intensive, it
      * may be best to switch to a
      * {@link FragmentStatePagerAdapter}.
+     * Only the fragment of the current tab is resumed, the fragments load their content when resumed.
      */
     private SectionsPagerAdapter mSectionsPagerAdapter;
 
@@ -71,11 +94,13 @@ public class RemindersListActivity extends AppCompatActivity {
     private TabLayout tabLayout;
     private Toolbar toolbar;
     private RemindersListFragment remindersFragment;
+    private StartupScheduler startupScheduler;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_reminders_list);
+        startupScheduler = new StartupScheduler(this);
 
         toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
@@ -95,7 +120,7 @@ public class RemindersListActivity extends AppCompatActivity {
             if (!Prefs.isAddReminderDialogUsed(RemindersListActivity.this)) {
                 Toast.makeText(RemindersListActivity.this, R.string.toast_info_add_reminder_dialog, Toast.LENGTH_LONG).show();
             }
-            startActivityForResult(new Intent(this, AddReminderDialogActivity.class).setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP), 0);
+            startActivityForResult(new Intent(this, AddReminderDialogActivity.class).setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP), REQUEST_ADD_REMINDER);
         });
 
         // NOTE: Only enable the following if it turns out to be a very common problem.
@@ -103,19 +128,45 @@ public class RemindersListActivity extends AppCompatActivity {
         // This should be shown before the welcome dialog, so that the welcome dialog is on top.
         // checkBatteryOptimization(this);
 
+        // The following dialogs are not needed for the first frame, so their checks (reading preferences and package info) are done in the background afterwards. They are shown in this order, each on top of the previous one.
+
         // Check whether run on boot is enabled and whether should ask user to enable it.
-        checkRunOnBoot();
+        startupScheduler.schedule(
+                () -> Prefs.isRunOnBoot(this) || Prefs.isRunOnBootDontShowAgain(this),
+                dontAsk -> {
+                    if (!dontAsk) {
+                        showRunOnBootDialog();
+                    }
+                });
 
         // NOTE: Welcome below message covers change log, this is desired.
-        ChangeLog changeLog = new ChangeLog(this);
-        if (changeLog.isFirstRun()) {
-            changeLog.getLogDialog().show();
-        }
+        startupScheduler.schedule(
+                () -> {
+                    ChangeLog changeLog = new ChangeLog(this);
+                    return changeLog.isFirstRun() ? changeLog : null;
+                },
+                changeLog -> {
+                    if (changeLog != null) {
+                        changeLog.getLogDialog().show(); // parses the change log
+                    }
+                });
 
         // Show welcome dialog if version changed
-        if (!Prefs.checkWelcomeMessageShown(this)) {
-            UIUtils.showMessageDialog(R.string.dialog_welcome_title, getString(R.string.welcome_message), this);
-        }
+        startupScheduler.schedule(
+                () -> Prefs.getWelcomeMessageVersionToShow(this),
+                version -> {
+                    if (version >= 0) {
+                        UIUtils.showMessageDialog(R.string.dialog_welcome_title, getString(R.string.welcome_message), this);
+                        // Only marked as shown now, as the activity might be finished before this step is run
+                        Prefs.setWelcomeMessageShown(this, version);
+                    }
+                });
+    }
+
+    @Override
+    protected void onDestroy() {
+        startupScheduler.cancel();
+        super.onDestroy();
     }
 
     @Override
@@ -128,16 +179,122 @@ public class RemindersListActivity extends AppCompatActivity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
         if (resultCode == RESULT_OK) {
-            if (remindersFragment != null) {
-                remindersFragment.reloadRemindersListAndUpdateRecyclerView();
+            if (requestCode == REQUEST_EXPORT && data != null && data.getData() != null) {
+                runBackupOperation(data.getData(), true);
+            } else if (requestCode == REQUEST_IMPORT && data != null && data.getData() != null) {
+                runBackupOperation(data.getData(), false);
+            } else if (remindersFragment != null) {
+                remindersFragment.requestReload();
             }
         }
     }
 
+    /**
+     * Let the user choose the document to export the reminders to or to import reminders from. The result is handled in {@link #onActivityResult(int, int, Intent)}.
+     *
+     * @param export
+     */
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private void chooseBackupFile(boolean export) {
+        if (export) {
+            startActivityForResult(new Intent(Intent.ACTION_CREATE_DOCUMENT)
+                    .addCategory(Intent.CATEGORY_OPENABLE)
+                    .setType(BACKUP_MIME_TYPE)
+                    .putExtra(Intent.EXTRA_TITLE, getString(R.string.backup_file_name)), REQUEST_EXPORT);
+        } else {
+            startActivityForResult(new Intent(Intent.ACTION_OPEN_DOCUMENT)
+                    .addCategory(Intent.CATEGORY_OPENABLE)
+                    .setType("*/*"), REQUEST_IMPORT);
+        }
+    }
+
+    /**
+     * Export all reminders to or import reminders from the given document on a background thread and show the result as a toast.
+     *
+     * @param uri
+     * @param export
+     */
+    private void runBackupOperation(Uri uri, boolean export) {
+        Context context = getApplicationContext();
+        new Thread(() -> {
+            String message;
+            try {
+                ParcelFileDescriptor fd = context.getContentResolver().openFileDescriptor(uri, export ? "w" : "r");
+                if (fd == null) {
+                    throw new FileNotFoundException("Cannot open " + uri);
+                }
+                if (export) {
+                    try (FileChannel channel = new ParcelFileDescriptor.AutoCloseOutputStream(fd).getChannel()) {
+                        ReminderManager.exportReminders(context, channel);
+                    }
+                    message = context.getString(R.string.toast_export_done);
+                } else {
+                    int count;
+                    try (FileChannel channel = new ParcelFileDescriptor.AutoCloseInputStream(fd).getChannel()) {
+                        count = ReminderManager.importReminders(context, channel);
+                    }
+                    message = context.getResources().getQuantityString(R.plurals.toast_import_done, count, count);
+                }
+            } catch (BackupFormat.InvalidBackupException e) {
+                Log.w("Backup", "Invalid backup.", e);
+                message = context.getString(R.string.toast_import_invalid);
+            } catch (IOException | RuntimeException e) {
+                Log.e("Backup", (export ? "Export" : "Import") + " failed.", e);
+                message = context.getString(export ? R.string.toast_export_failed : R.string.toast_import_failed);
+            }
+            String result = message;
+            runOnUiThread(() -> Toast.makeText(context, result, Toast.LENGTH_LONG).show());
+        }, "Backup").start();
+    }
+
+    /**
+     * Synchronize the reminders with other devices via the directory "sync" in the app's external files directory (see {@link DirectorySyncTransport}) on a background thread and show the result as a toast. The directory can be shared between devices by a file synchronization app.
+     */
+    private void runSync() {
+        Context context = getApplicationContext();
+        new Thread(() -> {
+            String message;
+            try {
+                File directory = context.getExternalFilesDir("sync");
+                if (directory == null) {
+                    throw new IOException("External storage not available.");
+                }
+                SyncEngine.Result result = ReminderManager.syncReminders(context,
+                        new DirectorySyncTransport(directory, ReminderManager.getSyncDeviceId(context)));
+                message = context.getString(R.string.toast_sync_done, result.getReceived(), result.getSent());
+            } catch (IOException | RuntimeException e) {
+                Log.e("Sync", "Synchronization failed.", e);
+                message = context.getString(R.string.toast_sync_failed);
+            }
+            String result = message;
+            runOnUiThread(() -> Toast.makeText(context, result, Toast.LENGTH_LONG).show());
+        }, "Sync").start();
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present.
         getMenuInflater().inflate(R.menu.menu_reminders_list, menu);
+        // Choosing the backup file requires the storage access framework
+        boolean backupSupported = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+        menu.findItem(R.id.action_export).setVisible(backupSupported);
+        menu.findItem(R.id.action_import).setVisible(backupSupported);
+        SearchView searchView = (SearchView) menu.findItem(R.id.action_search).getActionView();
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                return onQueryTextChange(query);
+            }
+
+            @Override
+            public boolean onQueryTextChange(String query) {
+                if (remindersFragment != null) {
+                    viewPager.setCurrentItem(0);
+                    remindersFragment.setSearchQuery(query);
+                }
+                return true;
+            }
+        });
         return true;
     }
 
@@ -148,11 +305,20 @@ public class RemindersListActivity extends AppCompatActivity {
         if (id == R.id.action_settings) {
             startActivity(new Intent(this, SettingsActivity.class));
             return true;
+        } else if (id == R.id.action_export) {
+            chooseBackupFile(true);
+            return true;
+        } else if (id == R.id.action_import) {
+            chooseBackupFile(false);
+            return true;
+        } else if (id == R.id.action_sync) {
+            runSync();
+            return true;
         } else if (id == R.id.action_about) {
             try {
                 PackageInfo packageInfo = getPackageManager().getPackageInfo(getPackageName(), 0);
                 String title = getString(R.string.app_name) + " " + packageInfo.versionName;
-                HtmlDialogFragment.displayHtmlDialogFragment(getSupportFragmentManager(), title, R.raw.about, DisplayChangeLog.class);
+                HtmlDialogFragment.displayHtmlDialogFragment(getSupportFragmentManager(), title, R.raw.about, DisplayChangeLog.NAME);
             } catch (PackageManager.NameNotFoundException ex) {
                 throw new RuntimeException(ex);
             }
@@ -160,11 +326,7 @@ public class RemindersListActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
-    private void checkRunOnBoot() {
-        if (Prefs.isRunOnBoot(this) || Prefs.isRunOnBootDontShowAgain(this)) {
-            return;
-        }
-
+    private void showRunOnBootDialog() {
         new AlertDialog.Builder(this)
                 .setTitle(R.string.dialog_startup_run_on_boot_title)
                 .setMessage(R.string.dialog_startup_run_on_boot_message)
@@ -207,7 +369,18 @@ public class RemindersListActivity extends AppCompatActivity {
     public class SectionsPagerAdapter extends FragmentPagerAdapter {
 
         SectionsPagerAdapter(FragmentManager fm) {
-            super(fm);
+            super(fm, BEHAVIOR_RESUME_ONLY_CURRENT_FRAGMENT);
+        }
+
+        @NonNull
+        @Override
+        public Object instantiateItem(@NonNull ViewGroup container, int position) {
+            Object fragment = super.instantiateItem(container, position);
+            // Fragments restored by the fragment manager are not created via getItem()
+            if (fragment instanceof RemindersListFragment) {
+                remindersFragment = (RemindersListFragment) fragment;
+            }
+            return fragment;
         }
 
         @Override
@@ -226,8 +399,7 @@ public class RemindersListActivity extends AppCompatActivity {
         public Fragment getItem(int position) {
             switch (position) {
                 case 0:
-                    remindersFragment = RemindersListFragment.newInstance();
-                    return remindersFragment;
+                    return RemindersListFragment.newInstance();
                 case 1:
                     return TemplatesFragment.newInstance();
                 default:
@@ -37,6 +37,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.view.ActionMode;
 import androidx.arch.core.util.Function;
@@ -53,10 +54,11 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
 
-import felixwiemuth.simplereminder.Prefs;
 import felixwiemuth.simplereminder.R;
 import felixwiemuth.simplereminder.ReminderManager;
+import felixwiemuth.simplereminder.TemplateStore;
 import felixwiemuth.simplereminder.data.Reminder;
+import felixwiemuth.simplereminder.data.Template;
 import felixwiemuth.simplereminder.ui.AddReminderDialogActivity;
 import felixwiemuth.simplereminder.util.DateTimeUtil;
 import felixwiemuth.simplereminder.util.ImplementationError;
@@ -94,10 +96,67 @@ public class RemindersListFragment extends Fragment {
     }
 
     public static final String BROADCAST_REMINDERS_UPDATED = "felixwiemuth.simplereminder.BROADCAST_REMINDERS_UPDATED";
+
+    /**
+     * Payload for rebinding items of which only the selection state changed.
+     */
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    /**
+     * Where the displayed reminders are loaded from.
+     */
+    interface RemindersSource {
+        /**
+         * @see ReminderManager#getStoreVersion(Context)
+         */
+        long getVersion(Context context);
+
+        /**
+         * @return a list of reminders which may be changed by the caller
+         */
+        List<Reminder> getReminders(Context context);
+
+        /**
+         * @see ReminderManager#searchReminders(Context, String)
+         */
+        Set<Integer> search(Context context, String query);
+    }
+
+    private static final RemindersSource REMINDER_MANAGER_SOURCE = new RemindersSource() {
+        @Override
+        public long getVersion(Context context) {
+            return ReminderManager.getStoreVersion(context);
+        }
+
+        @Override
+        public List<Reminder> getReminders(Context context) {
+            return ReminderManager.getReminders(context);
+        }
+
+        @Override
+        public Set<Integer> search(Context context, String query) {
+            return ReminderManager.searchReminders(context, query);
+        }
+    };
+
+    /**
+     * The source of the reminders, only replaced by tests so that they do not use the saved reminders.
+     */
+    @VisibleForTesting
+    static RemindersSource remindersSource = REMINDER_MANAGER_SOURCE;
+
+    /**
+     * Use the saved reminders again after {@link #remindersSource} was replaced.
+     */
+    @VisibleForTesting
+    static void resetRemindersSource() {
+        remindersSource = REMINDER_MANAGER_SOURCE;
+    }
+
     private BroadcastReceiver broadcastReceiver;
 
-    private CustomViewType reminderCardTimeOnlyViewType = new CustomViewType(TimeOnlyItemViewHolder.class, R.layout.reminder_card);
-    private CustomViewType reminderCardFullDateViewType = new CustomViewType(FullDateItemViewHolder.class, R.layout.reminder_card);
+    private CustomViewType reminderCardTimeOnlyViewType = new CustomViewType(TimeOnlyItemViewHolder.class, R.layout.reminder_card_time_only);
+    private CustomViewType reminderCardFullDateViewType = new CustomViewType(FullDateItemViewHolder.class, R.layout.reminder_card_full_date);
 
     /**
      * Maximum number of sections (days in the future) for the recycler view to display scheduled reminders in their own section.
@@ -105,17 +164,50 @@ public class RemindersListFragment extends Fragment {
     private final int MAX_DAY_SECTIONS = 7;
 
     /**
-     * Mapping containing currently displayed reminders, the key being the reminder ID. May only be updated via {@link #reloadRemindersListAndUpdateRecyclerView()}.
+     * Number of recycled views to keep per reminder card view type, about the number of cards fitting on the screen.
+     */
+    private static final int REMINDER_CARD_POOL_SIZE = 12;
+
+    /**
+     * Number of views kept attached to the list after being scrolled off screen, so that scrolling back does not need to rebind them.
+     */
+    private static final int ITEM_VIEW_CACHE_SIZE = 6;
+
+    /**
+     * Item IDs of section headers, which must not collide with reminder IDs (non-negative). Headers of day sections have ID {@link #HEADER_ID_DAY} minus the day offset.
+     */
+    private static final long HEADER_ID_DUE = -1;
+    private static final long HEADER_ID_FUTURE = -2;
+    private static final long HEADER_ID_DONE = -3;
+    private static final long HEADER_ID_DAY = -10;
+
+    /**
+     * Mapping containing currently displayed reminders, the key being the reminder ID. May only be updated via {@link #reloadRemindersListAndUpdateRecyclerView()}. The index of a reminder in this mapping is its index in {@link #selection}.
      */
     private SparseArray<Reminder> reminders;
 
+    /**
+     * The store version (see {@link ReminderManager#getStoreVersion(Context)}) of the currently displayed reminders.
+     */
+    private long loadedStoreVersion = -1;
+
+    /**
+     * The time settings version (see {@link DateTimeUtil#getTimeSettingsVersion()}) the currently displayed reminders were sectioned with.
+     */
+    private int loadedTimeSettingsVersion = -1;
+
+    /**
+     * If not empty, only reminders matching this query (see {@link ReminderManager#searchReminders(Context, String)}) are displayed.
+     */
+    private String searchQuery = "";
+
     private RecyclerView remindersListRecyclerView;
     private SectionedRecyclerViewAdapter sectionAdapter;
 
     /**
-     * The current selection of items in {@link #remindersListRecyclerView} (reminder IDs). Must be updated when reminders are removed.
+     * The current selection of items in {@link #remindersListRecyclerView}, by index in {@link #reminders} and categorized by the ordinal of the reminders' status. Is remapped when the reminders are reloaded.
      */
-    private Set<Integer> selection; // using Reminder objects might be dangerous as the objects might change when reloading the view (even when IDs stay the same)
+    private SelectionModel selection;
 
     /**
      * The current action mode or null.
@@ -164,16 +256,25 @@ public class RemindersListFragment extends Fragment {
                     Toast.makeText(getContext(), getString(R.string.reminder_list_action_copy_text_feedback), Toast.LENGTH_SHORT).show();
                     break;
                 case R.id.action_mark_done:
-                    ReminderManager.updateReminders(getContext(), r -> r.setStatus(Reminder.Status.DONE), selection, true); // have to reschedule as some might still be scheduled
+                    ReminderManager.updateReminders(getContext(), r -> r.setStatus(Reminder.Status.DONE), getSelectedIds(), true); // have to reschedule as some might still be scheduled
                     mode.finish();
                     break;
                 case R.id.action_add_template:
-                    //TODO implement
-                    Toast.makeText(getContext(), getString(R.string.reminder_list_action_placeholder), Toast.LENGTH_SHORT).show();
-//                    mode.finish();
+                    List<Template.TemplateBuilder> templates = new ArrayList<>();
+                    for (int i = selection.nextSelected(0); i != -1; i = selection.nextSelected(i + 1)) {
+                        Reminder reminder = reminders.valueAt(i);
+                        Calendar time = reminder.getCalendar();
+                        templates.add(Template.builder()
+                                .text(reminder.getText())
+                                .timeType(Template.TimeType.TIME_OF_DAY)
+                                .minutes(time.get(Calendar.HOUR_OF_DAY) * 60 + time.get(Calendar.MINUTE)));
+                    }
+                    TemplateStore.addTemplates(getContext(), templates);
+                    Toast.makeText(getContext(), getString(R.string.reminder_list_action_add_template_feedback), Toast.LENGTH_SHORT).show();
+                    mode.finish();
                     break;
                 case R.id.action_delete:
-                    ReminderManager.removeReminders(getContext(), selection);
+                    ReminderManager.removeReminders(getContext(), getSelectedIds());
                     mode.finish();
                     break;
                 case R.id.action_select_all:
@@ -187,10 +288,10 @@ public class RemindersListFragment extends Fragment {
         }
 
         private Reminder getOnlySelectedReminder() {
-            if (selection.size() != 1) {
+            if (selection.getSelectedCount() != 1) {
                 throw new ImplementationError("Selection must have size 1.");
             }
-            return reminders.get(selection.iterator().next());
+            return reminders.valueAt(selection.nextSelected(0));
         }
 
         @Override
@@ -220,15 +321,14 @@ public class RemindersListFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        selection = new HashSet<>();
+        selection = new SelectionModel(Reminder.Status.values().length);
         reminders = new SparseArray<>();
 
 
         broadcastReceiver = new BroadcastReceiver() {
             @Override
             public void onReceive(Context context, Intent intent) {
-                Prefs.setRemindersUpdated(false, getContext()); // clear flag
-                reloadRemindersListAndUpdateRecyclerView();
+                reloadRemindersListIfOutdated();
             }
         };
 
@@ -238,7 +338,40 @@ public class RemindersListFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         View rootView = inflater.inflate(R.layout.fragment_reminders_list, container, false);
         remindersListRecyclerView = rootView.findViewById(R.id.reminders_list);
-        reloadRemindersListAndUpdateRecyclerView();
+        remindersListRecyclerView.setHasFixedSize(true); // the list's size does not depend on its content
+        remindersListRecyclerView.setItemViewCacheSize(ITEM_VIEW_CACHE_SIZE);
+
+        sectionAdapter = new SectionedRecyclerViewAdapter(reminderCardTimeOnlyViewType, reminderCardFullDateViewType) {
+            @Override
+            public long getItemId(int position) {
+                ReminderItemSection section = (ReminderItemSection) getSectionForPosition(position);
+                int positionInSection = getPositionInSection(position);
+                if (positionInSection < 0 || positionInSection >= section.reminders.size()) {
+                    return section.headerId;
+                }
+                return section.reminders.get(positionInSection).getId();
+            }
+
+            @Override
+            public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+                // Only update the selection state if nothing else changed
+                if (holder instanceof ItemViewHolder && !payloads.isEmpty() && onlySelectionChanged(payloads)) {
+                    ItemViewHolder itemHolder = (ItemViewHolder) holder;
+                    itemHolder.setSelected(getContext(), selection.isSelected(itemHolder.selectionIndex));
+                } else {
+                    super.onBindViewHolder(holder, position, payloads);
+                }
+            }
+        };
+        // Items keep their holders when the list is reloaded
+        sectionAdapter.setHasStableIds(true);
+        RecyclerView.RecycledViewPool viewPool = remindersListRecyclerView.getRecycledViewPool();
+        viewPool.setMaxRecycledViews(sectionAdapter.getCustomViewTypeKey(reminderCardTimeOnlyViewType), REMINDER_CARD_POOL_SIZE);
+        viewPool.setMaxRecycledViews(sectionAdapter.getCustomViewTypeKey(reminderCardFullDateViewType), REMINDER_CARD_POOL_SIZE);
+        remindersListRecyclerView.setAdapter(sectionAdapter);
+
+        // The reminders are loaded when the fragment is resumed, i.e., when it is visible
+        loadedStoreVersion = -1;
         return rootView;
     }
 
@@ -246,31 +379,75 @@ public class RemindersListFragment extends Fragment {
     public void onResume() {
         super.onResume();
         LocalBroadcastManager.getInstance(getActivity()).registerReceiver(broadcastReceiver, new IntentFilter(BROADCAST_REMINDERS_UPDATED));
-        if (Prefs.isRemindersUpdated(getContext())) {
-            Prefs.setRemindersUpdated(false, getContext());
-            reloadRemindersListAndUpdateRecyclerView();
-        }
+        reloadRemindersListIfOutdated();
     }
 
     @Override
     public void onPause() {
         LocalBroadcastManager.getInstance(getActivity()).unregisterReceiver(broadcastReceiver);
+        ReminderManager.savePendingUpdates(getContext()); // the process might be killed after the user left the app
         super.onPause();
     }
 
     /**
-     * Call when the reminders list has changed, to reload all items.
+     * Reload the reminders list if it changed since it was last loaded.
+     */
+    private void reloadRemindersListIfOutdated() {
+        if (remindersSource.getVersion(getContext()) != loadedStoreVersion
+                || DateTimeUtil.getTimeSettingsVersion() != loadedTimeSettingsVersion) { // sections by day and displayed times depend on the time zone and current time
+            reloadRemindersListAndUpdateRecyclerView();
+        }
+    }
+
+    /**
+     * Call when the reminders list has changed, to reload all items. Reloads immediately if the fragment is resumed, otherwise when it is resumed.
+     */
+    void requestReload() {
+        loadedStoreVersion = -1;
+        if (isResumed()) {
+            reloadRemindersListAndUpdateRecyclerView();
+        }
+    }
+
+    /**
+     * Reload all items. May only be called when the fragment's view exists.
      */
-    void reloadRemindersListAndUpdateRecyclerView() {
+    private void reloadRemindersListAndUpdateRecyclerView() {
+        // Read the version first, so that a change during loading leads to another reload
+        loadedStoreVersion = remindersSource.getVersion(getContext());
+        loadedTimeSettingsVersion = DateTimeUtil.getTimeSettingsVersion();
         // Load reminders list
-        List<Reminder> remindersList = ReminderManager.getReminders(getContext());
+        List<Reminder> remindersList = remindersSource.getReminders(getContext());
+        // Only keep search results if searching
+        if (!searchQuery.trim().isEmpty()) {
+            Set<Integer> matches = remindersSource.search(getContext(), searchQuery);
+            ListIterator<Reminder> matchesIt = remindersList.listIterator();
+            while (matchesIt.hasNext()) {
+                if (!matches.contains(matchesIt.next().getId())) {
+                    matchesIt.remove();
+                }
+            }
+        }
+        // Remember the selected reminders, as their indices change
+        Set<Integer> selectedIds = getSelectedIds();
         // Add entries to map (SparseArray)
         reminders.clear();
         for (Reminder reminder : remindersList) {
             reminders.put(reminder.getId(), reminder);
         }
+        int[] statuses = new int[reminders.size()];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = reminders.valueAt(i).getStatus().ordinal();
+        }
+        selection.setItems(statuses);
+        for (Integer id : selectedIds) {
+            int index = reminders.indexOfKey(id);
+            if (index >= 0) {
+                selection.setSelected(index, true);
+            }
+        }
 
-        sectionAdapter = new SectionedRecyclerViewAdapter(reminderCardTimeOnlyViewType, reminderCardFullDateViewType);
+        sectionAdapter.removeAllSections();
 
         // Section reminders by status
         List<Reminder> remindersDue = new ArrayList<>();
@@ -314,7 +491,7 @@ public class RemindersListFragment extends Fragment {
         Collections.sort(remindersDue, (o1, o2) -> -o1.compareTo(o2));
 
         // Section for due reminders (with a date not in the future)
-        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_due), DisplayType.TIME_ONLY_IF_TODAY, remindersDue));
+        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_due), HEADER_ID_DUE, DisplayType.TIME_ONLY_IF_TODAY, remindersDue));
 
         it = remindersScheduled.listIterator();
 
@@ -338,7 +515,7 @@ public class RemindersListFragment extends Fragment {
             };
 
             List<Reminder> remindersCurrentDay = new ArrayList<>();
-            ReminderItemSection section = new ReminderItemSection(makeSectionTitle.apply(dayOffset), DisplayType.TIME_ONLY, remindersCurrentDay); // the current section
+            ReminderItemSection section = new ReminderItemSection(makeSectionTitle.apply(dayOffset), HEADER_ID_DAY - dayOffset, DisplayType.TIME_ONLY, remindersCurrentDay); // the current section
 
             iteratorLoop:
             while (it.hasNext()) {
@@ -358,7 +535,7 @@ public class RemindersListFragment extends Fragment {
                     }
                     currentTime.add(Calendar.DAY_OF_MONTH, 1);
                     // Create the new section
-                    section = new ReminderItemSection(makeSectionTitle.apply(dayOffset), DisplayType.TIME_ONLY, remindersCurrentDay);
+                    section = new ReminderItemSection(makeSectionTitle.apply(dayOffset), HEADER_ID_DAY - dayOffset, DisplayType.TIME_ONLY, remindersCurrentDay);
                 }
                 remindersCurrentDay.add(reminder);
             }
@@ -373,12 +550,58 @@ public class RemindersListFragment extends Fragment {
         while (it.hasNext()) {
             futureReminders.add(it.next());
         }
-        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_future), DisplayType.FULL, futureReminders));
+        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_future), HEADER_ID_FUTURE, DisplayType.FULL, futureReminders));
 
         // Section for DONE reminders
-        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_done), DisplayType.FULL, remindersDone));
+        sectionAdapter.addSection(new ReminderItemSection(getString(R.string.reminder_section_done), HEADER_ID_DONE, DisplayType.FULL, remindersDone));
 
-        remindersListRecyclerView.setAdapter(sectionAdapter); // This relayouts the view
+        sectionAdapter.notifyDataSetChanged(); // with stable IDs, holders of items still present are reused
+
+        if (actionMode != null) {
+            if (selection.isEmpty()) { // all selected reminders have been removed
+                actionMode.finish();
+            } else {
+                updateAvailableActions();
+            }
+        }
+    }
+
+    private static boolean onlySelectionChanged(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_SELECTION) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the IDs of the currently selected reminders.
+     *
+     * @return
+     */
+    private Set<Integer> getSelectedIds() {
+        Set<Integer> ids = new HashSet<>(selection.getSelectedCount());
+        for (int i = selection.nextSelected(0); i != -1; i = selection.nextSelected(i + 1)) {
+            ids.add(reminders.keyAt(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Only display reminders matching the given query (all reminders if the query is empty).
+     *
+     * @param query
+     */
+    void setSearchQuery(@NonNull String query) {
+        if (query.equals(searchQuery)) {
+            return;
+        }
+        searchQuery = query;
+        if (actionMode != null) {
+            actionMode.finish(); // the selection might contain reminders which are not displayed anymore
+        }
+        requestReload();
     }
 
     /**
@@ -387,19 +610,13 @@ public class RemindersListFragment extends Fragment {
     private void updateAvailableActions() {
         setMenuItemAvailability(
                 menuActionReschedule,
-                selection.size() == 1);
+                selection.getSelectedCount() == 1);
         setMenuItemAvailability(
                 menuActionCopyText,
-                selection.size() == 1);
-        boolean selectionContainsDone = false;
-        for (Integer i : selection) {
-            if (reminders.get(i).getStatus() == Reminder.Status.DONE) {
-                selectionContainsDone = true;
-            }
-        }
+                selection.getSelectedCount() == 1);
         setMenuItemAvailability(
                 menuActionMarkDone,
-                !selectionContainsDone);
+                selection.getSelectedCount(Reminder.Status.DONE.ordinal()) == 0);
 //        setMenuItemAvailability(
 //                menuActionEdit,
 //                selection.size() == 1);
@@ -411,39 +628,36 @@ public class RemindersListFragment extends Fragment {
     }
 
     public void selectAll() {
-        for (int i = 0; i < remindersListRecyclerView.getAdapter().getItemCount(); i++) {
-            RecyclerView.ViewHolder viewHolder = remindersListRecyclerView.findViewHolderForAdapterPosition(i);
-            if (viewHolder instanceof ItemViewHolder) {
-                ((ItemViewHolder) viewHolder).setSelected(getContext());
-            }
-        }
-        for (int i = 0; i < reminders.size(); i++) {
-            selection.add(reminders.valueAt(i).getId());
-        }
+        selection.selectAll();
+        notifySelectionChanged();
     }
 
     public void unselectAll() {
-        for (int i = 0; i < remindersListRecyclerView.getAdapter().getItemCount(); i++) {
-            RecyclerView.ViewHolder viewHolder = remindersListRecyclerView.findViewHolderForAdapterPosition(i);
-            if (viewHolder instanceof ItemViewHolder) {
-                ((ItemViewHolder) viewHolder).setUnselected();
-            }
-        }
         selection.clear();
+        notifySelectionChanged();
+    }
+
+    /**
+     * Rebind the selection state of all items. Only attached and cached holders are rebound, the others get the state when they are bound.
+     */
+    private void notifySelectionChanged() {
+        sectionAdapter.notifyItemRangeChanged(0, sectionAdapter.getItemCount(), PAYLOAD_SELECTION);
     }
 
     private class ReminderItemSection extends StatelessSection {
 
         private String title;
+        private final long headerId;
         private DisplayType displayType;
         private List<Reminder> reminders;
 
-        public ReminderItemSection(@NonNull String title, DisplayType displayType, @NonNull List<Reminder> reminders) {
+        public ReminderItemSection(@NonNull String title, long headerId, DisplayType displayType, @NonNull List<Reminder> reminders) {
             super(SectionParameters.builder()
-                    .itemResourceId(R.layout.reminder_card)
+                    .itemResourceId(R.layout.reminder_card_time_only)
                     .headerResourceId(R.layout.reminder_section_header)
                     .build());
             this.title = title;
+            this.headerId = headerId;
             this.displayType = displayType;
             this.reminders = reminders;
         }
@@ -493,14 +707,8 @@ public class RemindersListFragment extends Fragment {
 
             ItemViewHolder holder = (ItemViewHolder) viewHolder;
             holder.descriptionView.setText(reminder.getText());
-            holder.timeView.setText(DateTimeUtil.formatTime(reminder.getDate()));
-
-            if (reminderCardTimeOnlyViewType.isInstanceOf(viewHolder)) {
-                TimeOnlyItemViewHolder timeOnlyHolder = (TimeOnlyItemViewHolder) viewHolder;
-            } else if (reminderCardFullDateViewType.isInstanceOf(viewHolder)) {
-                FullDateItemViewHolder fullDateHolder = (FullDateItemViewHolder) viewHolder;
-                fullDateHolder.dateView.setText(DateTimeUtil.formatDate(getContext(), reminder.getDate()));
-            }
+            String time = DateTimeUtil.formatTime(reminder.getDate());
+            holder.setDate(getContext(), reminder.getDate(), reminder.isRecurring() ? time + " \u21bb" : time); // mark recurring reminders with a "repeat" arrow
 
             // Set color of datefield
             int dateColor;
@@ -521,17 +729,14 @@ public class RemindersListFragment extends Fragment {
             holder.datefieldView.setBackgroundColor(dateColor);
 
             // Set selection mode of holder
-            if (selection.contains(reminder.getId())) {
-                holder.setSelected(getContext());
-            } else {
-                holder.setUnselected();
-            }
+            holder.selectionIndex = RemindersListFragment.this.reminders.indexOfKey(reminder.getId());
+            holder.setSelected(getContext(), selection.isSelected(holder.selectionIndex));
 
             holder.itemView.setOnLongClickListener(view -> {
                 if (actionMode != null) {
                     return false;
                 }
-                selection.add(reminder.getId()); // selection must be up-to-date when initializing action-mode
+                selection.setSelected(holder.selectionIndex, true); // selection must be up-to-date when initializing action-mode
                 ((AppCompatActivity) getActivity()).startSupportActionMode(actionModeCallback);
                 holder.setSelected(getContext());
                 return true;
@@ -539,17 +744,13 @@ public class RemindersListFragment extends Fragment {
 
             holder.itemView.setOnClickListener(view -> {
                 if (actionMode != null) {
-                    if (selection.contains(reminder.getId())) {
-                        selection.remove(reminder.getId());
-                        holder.setUnselected();
-                        if (selection.isEmpty()) {
-                            actionMode.finish();
-                        }
+                    boolean selected = selection.toggle(holder.selectionIndex);
+                    holder.setSelected(getContext(), selected);
+                    if (selection.isEmpty()) {
+                        actionMode.finish();
                     } else {
-                        selection.add(reminder.getId());
-                        holder.setSelected(getContext());
+                        updateAvailableActions();
                     }
-                    updateAvailableActions();
                 }
             });
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.ui.reminderslist;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A selection of items identified by dense indices {@code 0..size-1}, backed by a bit set. Each item belongs to a category (e.g. the status of a reminder) and the number of selected items per category is maintained with every change, so that changing the selection of an item and all queries take constant time. Selecting or clearing all items only sets the words of the bit set.
+ *
+ * @author Felix Wiemuth
+ */
+class SelectionModel {
+
+    private final BitSet selected = new BitSet();
+    private int[] categories = new int[0];
+    private final int[] totalPerCategory;
+    private final int[] selectedPerCategory;
+    private int selectedCount;
+
+    /**
+     * @param categoryCount the number of categories, which are identified by {@code 0..categoryCount-1}
+     */
+    SelectionModel(int categoryCount) {
+        totalPerCategory = new int[categoryCount];
+        selectedPerCategory = new int[categoryCount];
+    }
+
+    /**
+     * Set the items to select from and clear the selection.
+     *
+     * @param categories the category of each item
+     */
+    void setItems(int[] categories) {
+        this.categories = categories;
+        Arrays.fill(totalPerCategory, 0);
+        for (int category : categories) {
+            totalPerCategory[category]++;
+        }
+        clear();
+    }
+
+    int size() {
+        return categories.length;
+    }
+
+    boolean isSelected(int index) {
+        return selected.get(index);
+    }
+
+    void setSelected(int index, boolean select) {
+        if (selected.get(index) == select) {
+            return;
+        }
+        selected.set(index, select);
+        int delta = select ? 1 : -1;
+        selectedCount += delta;
+        selectedPerCategory[categories[index]] += delta;
+    }
+
+    /**
+     * Change the selection of the given item.
+     *
+     * @param index
+     * @return whether the item is selected now
+     */
+    boolean toggle(int index) {
+        boolean select = !selected.get(index);
+        setSelected(index, select);
+        return select;
+    }
+
+    void selectAll() {
+        selected.set(0, categories.length);
+        selectedCount = categories.length;
+        System.arraycopy(totalPerCategory, 0, selectedPerCategory, 0, totalPerCategory.length);
+    }
+
+    void clear() {
+        selected.clear();
+        selectedCount = 0;
+        Arrays.fill(selectedPerCategory, 0);
+    }
+
+    boolean isEmpty() {
+        return selectedCount == 0;
+    }
+
+    int getSelectedCount() {
+        return selectedCount;
+    }
+
+    int getSelectedCount(int category) {
+        return selectedPerCategory[category];
+    }
+
+    /**
+     * Get the next selected item, to iterate over the selection.
+     *
+     * @param fromIndex the first index to check
+     * @return the index of the next selected item, -1 if there is none
+     */
+    int nextSelected(int fromIndex) {
+        return selected.nextSetBit(fromIndex);
+    }
+}
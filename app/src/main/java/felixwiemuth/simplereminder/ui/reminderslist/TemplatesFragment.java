@@ -17,16 +17,40 @@
 
 package felixwiemuth.simplereminder.ui.reminderslist;
 
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Bundle;
-import androidx.fragment.app.Fragment;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.fragment.app.Fragment;
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
 import felixwiemuth.simplereminder.R;
+import felixwiemuth.simplereminder.TemplateStore;
+import felixwiemuth.simplereminder.data.Template;
+import felixwiemuth.simplereminder.ui.util.UIUtils;
+import felixwiemuth.simplereminder.util.ImplementationError;
 
+/**
+ * A fragment displaying the reminder templates. Tapping a template creates a reminder from it, a long click offers to delete it.
+ */
 public class TemplatesFragment extends Fragment {
 
+    private BroadcastReceiver broadcastReceiver;
+    private TemplatesAdapter adapter;
+    private TextView emptyView;
 
     public TemplatesFragment() {
         // Required empty public constructor
@@ -41,11 +65,104 @@ public class TemplatesFragment extends Fragment {
         return new TemplatesFragment();
     }
 
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        broadcastReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                reloadTemplates();
+            }
+        };
+    }
 
     @Override
-    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+    public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         // Inflate the layout for this fragment
-        return inflater.inflate(R.layout.fragment_templates, container, false);
+        View rootView = inflater.inflate(R.layout.fragment_templates, container, false);
+        RecyclerView templatesListView = rootView.findViewById(R.id.templates_list);
+        emptyView = rootView.findViewById(R.id.templates_empty);
+        adapter = new TemplatesAdapter();
+        templatesListView.setAdapter(adapter);
+        return rootView;
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        LocalBroadcastManager.getInstance(getActivity()).registerReceiver(broadcastReceiver, new IntentFilter(TemplateStore.BROADCAST_TEMPLATES_UPDATED));
+        reloadTemplates(); // templates are held in memory, so this is cheap
+    }
+
+    @Override
+    public void onPause() {
+        LocalBroadcastManager.getInstance(getActivity()).unregisterReceiver(broadcastReceiver);
+        super.onPause();
     }
 
+    private void reloadTemplates() {
+        adapter.setTemplates(TemplateStore.getTemplates(getContext()));
+        emptyView.setVisibility(adapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+    }
+
+    private String describeTime(Template template) {
+        switch (template.getTimeType()) {
+            case TIME_OF_DAY:
+                return getString(R.string.template_time_of_day, template.getMinutes() / 60, template.getMinutes() % 60);
+            case RELATIVE:
+                return getString(R.string.template_time_relative, template.getMinutes());
+            default:
+                throw new ImplementationError("Unknown time type.");
+        }
+    }
+
+    private class TemplatesAdapter extends RecyclerView.Adapter<TemplateViewHolder> {
+        private List<Template> templates = new ArrayList<>();
+
+        void setTemplates(List<Template> templates) {
+            this.templates = templates;
+            notifyDataSetChanged();
+        }
+
+        @NonNull
+        @Override
+        public TemplateViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new TemplateViewHolder(LayoutInflater.from(parent.getContext()).inflate(android.R.layout.simple_list_item_2, parent, false));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull TemplateViewHolder holder, int position) {
+            Template template = templates.get(position);
+            holder.textView.setText(template.getText());
+            holder.timeView.setText(describeTime(template));
+            holder.itemView.setOnClickListener(view -> {
+                Date date = TemplateStore.createReminder(getContext(), template);
+                UIUtils.showReminderDueToast(date, getContext());
+            });
+            holder.itemView.setOnLongClickListener(view -> {
+                new AlertDialog.Builder(getContext())
+                        .setMessage(R.string.dialog_delete_template)
+                        .setPositiveButton(android.R.string.ok, (d, i) -> TemplateStore.removeTemplate(getContext(), template.getId()))
+                        .setNegativeButton(android.R.string.cancel, null)
+                        .show();
+                return true;
+            });
+        }
+
+        @Override
+        public int getItemCount() {
+            return templates.size();
+        }
+    }
+
+    private static class TemplateViewHolder extends RecyclerView.ViewHolder {
+        private final TextView textView;
+        private final TextView timeView;
+
+        TemplateViewHolder(View view) {
+            super(view);
+            textView = view.findViewById(android.R.id.text1);
+            timeView = view.findViewById(android.R.id.text2);
+        }
+    }
 }
@@ -17,10 +17,12 @@
 
 package felixwiemuth.simplereminder.ui.reminderslist;
 
+import android.content.Context;
 import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
-import felixwiemuth.simplereminder.R;
+
+import java.util.Date;
 
 /**
  * View holder for items where only time is to be shown.
@@ -28,6 +30,11 @@ import felixwiemuth.simplereminder.R;
 public class TimeOnlyItemViewHolder extends ItemViewHolder {
 
     public TimeOnlyItemViewHolder(@NonNull View itemView) {
-        super(R.layout.reminder_card_datefield_time_only, (CardView) itemView);
+        super((CardView) itemView);
+    }
+
+    @Override
+    void setDate(Context context, Date date, String time) {
+        datefieldView.setText(time);
     }
 }
@@ -20,15 +20,19 @@
 
 package felixwiemuth.simplereminder.ui.util;
 
-import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.app.Dialog;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Resources;
 import android.net.Uri;
-import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.webkit.WebResourceRequest;
@@ -45,13 +49,16 @@ import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
 import felixwiemuth.simplereminder.R;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 //If you don't support Android 2.x, you should use the non-support version!
 
@@ -63,7 +70,8 @@ import java.util.Map;
 
 /**
  * Displays an HTML document in a dialog fragment with the possibility to add special action links
- * that can trigger execution of app code ({@see Action}).
+ * that can trigger execution of app code ({@see Action}). Actions have to be registered with {@link #registerAction(Action)} before a dialog using them is shown or restored.
+ * Documents are loaded on a background thread and kept in a cache which is trimmed on memory pressure (see {@link #onTrimMemory(int)}).
  */
 public class HtmlDialogFragment extends DialogFragment {
 
@@ -90,7 +98,33 @@ public class HtmlDialogFragment extends DialogFragment {
         void run(List<String> args, Context context);
     }
 
-    private AsyncTask<Void, Void, String> loader;
+    /**
+     * Maximum number of characters of documents to keep in {@link #documentCache}.
+     */
+    private static final int DOCUMENT_CACHE_SIZE = 256 * 1024;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * All actions which can be used by dialogs, by name.
+     */
+    private static final Map<String, Action> actionRegistry = new HashMap<>();
+
+    /**
+     * Loaded documents by raw resource ID.
+     */
+    private static final LruCache<Integer, String> documentCache = new LruCache<Integer, String>(DOCUMENT_CACHE_SIZE) {
+        @Override
+        protected int sizeOf(Integer key, String value) {
+            return value.length();
+        }
+    };
+
+    private static ExecutorService loaderExecutor;
+
+    /**
+     * The currently running loading of the document, if any. Only accessed on the main thread.
+     */
+    private Future<?> loader;
 
     private Map<String, Action> actions = new HashMap<>();
 
@@ -104,17 +138,34 @@ public class HtmlDialogFragment extends DialogFragment {
         super.onCreate(savedInstanceState);
         //noinspection ConstantConditions
         for (String actionName : getArguments().getStringArray(ARG_ACTIONS)) {
-            try {
-                Class<? extends Action> actionClass = (Class<? extends Action>) Class.forName(actionName);
-                Action action = actionClass.newInstance();
-                actions.put(action.getName(), action);
-            } catch (java.lang.InstantiationException e) {
-                throw new RuntimeException(e);
-            } catch (ClassNotFoundException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
+            Action action = actionRegistry.get(actionName);
+            if (action == null) {
+                throw new RuntimeException("Action \"" + actionName + "\" is not registered.");
             }
+            actions.put(actionName, action);
+        }
+    }
+
+    /**
+     * Register an action so that it can be used by dialogs. Replaces a registered action with the same name. Should be called on the main thread when the application starts, so that actions are also available to dialogs restored by the system.
+     *
+     * @param action
+     */
+    public static void registerAction(Action action) {
+        actionRegistry.put(action.getName(), action);
+    }
+
+    /**
+     * Release cached documents according to the given memory trim level (see {@link ComponentCallbacks2}).
+     *
+     * @param level
+     */
+    public static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            documentCache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            documentCache.trimToSize(DOCUMENT_CACHE_SIZE / 2);
         }
     }
 
@@ -124,14 +175,13 @@ public class HtmlDialogFragment extends DialogFragment {
      * @param fm          a fragment manager instance used to display this HtmlDialogFragment
      * @param resTitle    the title for the dialog, as string resource
      * @param resHtmlFile the resource of the HTML file to display
-     * @param actions     {@link Action}s that should be registered with the WebView to be shown
+     * @param actions     names of the {@link Action}s that should be available in the WebView to be shown, must be registered with {@link #registerAction(Action)}
      */
-    @SafeVarargs
-    public static void displayHtmlDialogFragment(FragmentManager fm, @StringRes int resTitle, @RawRes int resHtmlFile, Class<? extends Action>... actions) {
+    public static void displayHtmlDialogFragment(FragmentManager fm, @StringRes int resTitle, @RawRes int resHtmlFile, String... actions) {
         Bundle arguments = new Bundle();
         arguments.putInt(ARG_TITLE, resTitle);
         arguments.putInt(ARG_RES_HTML_FILE, resHtmlFile);
-        addActionsToBundle(arguments, actions);
+        arguments.putStringArray(ARG_ACTIONS, actions);
         constructFragment(arguments).displayFragment(fm);
     }
 
@@ -141,28 +191,18 @@ public class HtmlDialogFragment extends DialogFragment {
      * @param fm          a fragment manager instance used to display this HtmlDialogFragment
      * @param title       the title for the dialog, as string
      * @param resHtmlFile the resource of the HTML file to display
-     * @param actions     {@link Action}s that should be registered with the WebView to be shown
+     * @param actions     names of the {@link Action}s that should be available in the WebView to be shown, must be registered with {@link #registerAction(Action)}
      */
-    @SafeVarargs
-    public static void displayHtmlDialogFragment(FragmentManager fm, String title, @RawRes int resHtmlFile, Class<? extends Action>... actions) {
+    public static void displayHtmlDialogFragment(FragmentManager fm, String title, @RawRes int resHtmlFile, String... actions) {
         Bundle arguments = new Bundle();
         arguments.putString(ARG_TITLE, title);
         arguments.putInt(ARG_RES_HTML_FILE, resHtmlFile);
-        addActionsToBundle(arguments, actions);
+        arguments.putStringArray(ARG_ACTIONS, actions);
         constructFragment(arguments).displayFragment(fm);
     }
 
-    private static void addActionsToBundle(Bundle bundle, Class<? extends Action>[] actions) {
-        String[] actionNames = new String[actions.length];
-        for (int i = 0; i < actionNames.length; i++) {
-            actionNames[i] = actions[i].getCanonicalName();
-        }
-        bundle.putStringArray(ARG_ACTIONS, actionNames);
-    }
-
     /**
-     * @param arguments must include ARG_ACTIONS added by {@link #addActionsToBundle(Bundle,
-     *                  Class[])}
+     * @param arguments must include ARG_ACTIONS
      * @return
      */
     private static HtmlDialogFragment constructFragment(Bundle arguments) {
@@ -193,51 +233,72 @@ public class HtmlDialogFragment extends DialogFragment {
         super.onDestroy();
         if (loader != null) {
             loader.cancel(true);
+            loader = null;
         }
     }
 
     private WebView webView;
     private ProgressBar indeterminateProgress;
 
-    @SuppressLint("StaticFieldLeak")
     private void loadPage() {
-        // Load asynchronously in case of a very large file. The (implicit) reference to the outer class (fragment) in AsyncTask is not a problem as the fragment should stay alive while loading.
-        loader = new AsyncTask<Void, Void, String>() {
-
-            @Override
-            protected String doInBackground(Void... params) {
-                InputStream rawResource = getActivity().getResources().openRawResource(getArguments().getInt(ARG_RES_HTML_FILE)); //TODO error handling
-                BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(rawResource));
-
-                String line;
-                StringBuilder sb = new StringBuilder();
-
-                try {
-                    while ((line = bufferedReader.readLine()) != null) {
-                        sb.append(line);
-                        sb.append("\n");
-                    }
-                    bufferedReader.close();
-                } catch (IOException e) {
-                    // TODO You may want to include some logging here.
-                }
-
-                return sb.toString();
+        final int resHtmlFile = getArguments().getInt(ARG_RES_HTML_FILE);
+        String cached = documentCache.get(resHtmlFile);
+        if (cached != null) {
+            showPage(cached);
+            return;
+        }
+        // Load asynchronously in case of a very large file
+        final Resources resources = getActivity().getApplicationContext().getResources();
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        if (loaderExecutor == null) {
+            loaderExecutor = Executors.newSingleThreadExecutor();
+        }
+        final Future<?>[] task = new Future<?>[1];
+        task[0] = loaderExecutor.submit(() -> {
+            String body;
+            try {
+                body = readRawResource(resources, resHtmlFile);
+                documentCache.put(resHtmlFile, body);
+            } catch (IOException | Resources.NotFoundException e) {
+                Log.e("HtmlDialogFragment", "Could not load document.", e);
+                body = "";
             }
-
-            @Override
-            protected void onPostExecute(String body) {
-                super.onPostExecute(body);
-                if (getActivity() == null || isCancelled()) {
+            final String page = body;
+            mainHandler.post(() -> {
+                if (loader != task[0] || getActivity() == null) { // cancelled or replaced in the mean time
                     return;
                 }
-                indeterminateProgress.setVisibility(View.INVISIBLE);
-                webView.setVisibility(View.VISIBLE);
-                webView.loadDataWithBaseURL(null, body, "text/html", "utf-8", null);
                 loader = null;
+                showPage(page);
+            });
+        });
+        loader = task[0];
+    }
+
+    /**
+     * Read the given raw resource as UTF-8 text, as a whole.
+     *
+     * @param resources
+     * @param res
+     * @return
+     * @throws IOException
+     */
+    private static String readRawResource(Resources resources, @RawRes int res) throws IOException {
+        try (Reader reader = new InputStreamReader(resources.openRawResource(res), Charset.forName("UTF-8"))) {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, n);
             }
+            return sb.toString();
+        }
+    }
 
-        }.execute();
+    private void showPage(String body) {
+        indeterminateProgress.setVisibility(View.INVISIBLE);
+        webView.setVisibility(View.VISIBLE);
+        webView.loadDataWithBaseURL(null, body, "text/html", "utf-8", null);
     }
 
     @NonNull
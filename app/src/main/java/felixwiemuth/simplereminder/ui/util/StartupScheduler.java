@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.ui.util;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs startup work of an activity after the activity's first frame has been drawn, so that it does not delay showing the content. The work is split into a part run on a background thread and a part run on the main thread when it is idle, which gets the result of the first (e.g., reading preferences in the background and then showing a dialog).
+ * Work is run in the order it was scheduled. Must be created in {@link Activity#onCreate(android.os.Bundle)} after setting the content view and only be used on the main thread.
+ *
+ * @author Felix Wiemuth
+ */
+public class StartupScheduler {
+
+    /**
+     * Work to be run on a background thread.
+     *
+     * @param <T> the type of the result
+     */
+    public interface BackgroundTask<T> {
+        T run();
+    }
+
+    /**
+     * Work to be run on the main thread with the result of a {@link BackgroundTask}.
+     *
+     * @param <T> the type of the result
+     */
+    public interface UiTask<T> {
+        void run(T result);
+    }
+
+    private static ExecutorService backgroundExecutor;
+
+    private final Activity activity;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final long createdAt = SystemClock.uptimeMillis();
+    /**
+     * Work scheduled before the first frame was drawn, null after it was drawn.
+     */
+    private List<Runnable> pending = new ArrayList<>();
+    private boolean cancelled;
+
+    public StartupScheduler(Activity activity) {
+        this.activity = activity;
+        final View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Drawing follows immediately in the same traversal, so a posted message runs after the frame
+                mainHandler.post(() -> onFirstFrame());
+                return true;
+            }
+        });
+    }
+
+    private void onFirstFrame() {
+        Log.d("StartupScheduler", activity.getClass().getSimpleName() + ": first frame after " + (SystemClock.uptimeMillis() - createdAt) + " ms");
+        List<Runnable> work = pending;
+        pending = null;
+        for (Runnable runnable : work) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * Schedule work to be run after the first frame: first {@code backgroundTask} on a background thread, then {@code uiTask} with its result on the main thread, when the main thread is idle. The UI task is not run if the activity is finishing or {@link #cancel()} was called.
+     *
+     * @param backgroundTask
+     * @param uiTask
+     * @param <T>
+     */
+    public <T> void schedule(final BackgroundTask<T> backgroundTask, final UiTask<T> uiTask) {
+        Runnable start = () -> {
+            if (backgroundExecutor == null) {
+                backgroundExecutor = Executors.newSingleThreadExecutor(); // keeps the order of scheduled work
+            }
+            backgroundExecutor.execute(() -> {
+                final T result = backgroundTask.run();
+                mainHandler.post(() -> Looper.myQueue().addIdleHandler(() -> {
+                    if (!cancelled && !activity.isFinishing()) {
+                        uiTask.run(result);
+                    }
+                    return false; // run only once
+                }));
+            });
+        };
+        if (pending != null) {
+            pending.add(start);
+        } else {
+            start.run();
+        }
+    }
+
+    /**
+     * Do not run any more UI tasks. Should be called when the activity is destroyed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+}
@@ -18,8 +18,15 @@
 package felixwiemuth.simplereminder.ui.util;
 
 import android.content.Context;
+import android.text.format.DateUtils;
+import android.widget.Toast;
+
 import androidx.appcompat.app.AlertDialog;
 
+import java.util.Date;
+
+import felixwiemuth.simplereminder.R;
+
 /**
  * @author Felix Wiemuth
  */
@@ -30,4 +37,20 @@ public class UIUtils {
         builder.setPositiveButton(android.R.string.ok, (dialog, which) -> dialog.dismiss()).setTitle(resTitle).setMessage(message);
         builder.show();
     }
+
+    /**
+     * Show a toast telling when a newly added reminder is due, relative to the current time.
+     *
+     * @param date    the due date of the reminder
+     * @param context
+     */
+    public static void showReminderDueToast(Date date, Context context) {
+        // Create relative description of due date
+        String relativeDueDate = DateUtils.getRelativeTimeSpanString(date.getTime(), System.currentTimeMillis(), 0).toString();
+        // Convert first letter to lower case to use it in a sentence
+        if (relativeDueDate.length() > 0) {
+            relativeDueDate = relativeDueDate.substring(0, 1).toLowerCase() + relativeDueDate.substring(1);
+        }
+        Toast.makeText(context, context.getString(R.string.toast_reminder_due, relativeDueDate), Toast.LENGTH_LONG).show();
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.ui.widget;
+
+import android.annotation.SuppressLint;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Typeface;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.view.View;
+import android.widget.RemoteViews;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import felixwiemuth.simplereminder.R;
+import felixwiemuth.simplereminder.ReminderManager;
+import felixwiemuth.simplereminder.WidgetSnapshot;
+import felixwiemuth.simplereminder.ui.reminderslist.RemindersListActivity;
+import felixwiemuth.simplereminder.util.DateTimeUtil;
+
+/**
+ * Home screen widget showing the next reminders. It only reads the {@link WidgetSnapshot} written by {@link ReminderManager}, never the reminders themselves. The widget is updated by {@link #update(Context)} when the snapshot changes and periodically by the system, so that dates are shown relative to the current day.
+ *
+ * @author Felix Wiemuth
+ */
+public class RemindersWidgetProvider extends AppWidgetProvider {
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        appWidgetManager.updateAppWidget(appWidgetIds, buildViews(context));
+    }
+
+    /**
+     * Update all widgets from the current snapshot.
+     *
+     * @param context
+     */
+    public static void update(Context context) {
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+        if (appWidgetManager == null) { // no widget support on this device
+            return;
+        }
+        int[] appWidgetIds = appWidgetManager.getAppWidgetIds(new ComponentName(context, RemindersWidgetProvider.class));
+        if (appWidgetIds.length > 0) {
+            appWidgetManager.updateAppWidget(appWidgetIds, buildViews(context));
+        }
+    }
+
+    private static RemoteViews buildViews(Context context) {
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_reminders);
+        views.removeAllViews(R.id.widget_list);
+        List<WidgetSnapshot.Entry> entries = ReminderManager.readWidgetSnapshot(context);
+        if (entries == null || entries.isEmpty()) {
+            views.setViewVisibility(R.id.widget_empty, View.VISIBLE);
+        } else {
+            views.setViewVisibility(R.id.widget_empty, View.GONE);
+            // Widgets are also built on background threads, where the shared formats of DateTimeUtil must not be used
+            @SuppressLint("SimpleDateFormat") DateFormat timeFormat = new SimpleDateFormat("HH:mm");
+            @SuppressLint("SimpleDateFormat") DateFormat dayFormat = new SimpleDateFormat("ddMMyyyy");
+            String today = dayFormat.format(new Date());
+            for (WidgetSnapshot.Entry entry : entries) {
+                RemoteViews row = new RemoteViews(context.getPackageName(), R.layout.widget_reminder_row);
+                row.setTextViewText(R.id.widget_row, formatEntry(context, entry, timeFormat, !dayFormat.format(entry.getDate()).equals(today)));
+                views.addView(R.id.widget_list, row);
+            }
+        }
+        Intent intent = new Intent(context, RemindersListActivity.class).setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        views.setOnClickPendingIntent(R.id.widget_root, PendingIntent.getActivity(context, 0, intent, 0));
+        return views;
+    }
+
+    /**
+     * Format an entry as its time (with the date if not today) followed by its text. Due reminders are shown in bold.
+     *
+     * @param context
+     * @param entry
+     * @param timeFormat
+     * @param showDate   whether the entry is not at the current day
+     * @return
+     */
+    private static CharSequence formatEntry(Context context, WidgetSnapshot.Entry entry, DateFormat timeFormat, boolean showDate) {
+        String time = timeFormat.format(entry.getDate());
+        if (showDate) {
+            time = DateTimeUtil.formatDate(context, entry.getDate()) + " " + time;
+        }
+        SpannableString text = new SpannableString(time + "  " + entry.getText());
+        if (entry.isDue()) {
+            text.setSpan(new StyleSpan(Typeface.BOLD), 0, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return text;
+    }
+}
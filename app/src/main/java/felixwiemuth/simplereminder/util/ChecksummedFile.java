@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * A file whose content is replaced atomically and verified by a checksum when read.
+ * <p>
+ * A write goes to a temporary file which is synced to disk, then the current file is moved to a backup and the temporary file takes its place (both by renaming). Reading takes the first valid copy out of the file, the temporary file and the backup, so after a crash at any point the content is either the one before or the one after the interrupted write, and a corrupted file falls back to the previous version.
+ *
+ * @author Felix Wiemuth
+ */
+public class ChecksummedFile {
+
+    private static final int MAGIC = 0x53524d31; // "SRM1"
+
+    /**
+     * The steps of a write, in order.
+     */
+    public enum Step {
+        WRITE_HEADER,
+        WRITE_PAYLOAD,
+        SYNC,
+        BACKUP,
+        RENAME
+    }
+
+    /**
+     * Allows tests to simulate failures before each step of a write.
+     */
+    public interface FaultInjector {
+        void before(Step step) throws IOException;
+    }
+
+    public static class CorruptFileException extends IOException {
+        public CorruptFileException(String message) {
+            super(message);
+        }
+    }
+
+    private final File file;
+    private final File tmpFile;
+    private final File backupFile;
+    private final FaultInjector faults;
+
+    private boolean recovered;
+
+    public ChecksummedFile(File file) {
+        this(file, step -> {
+        });
+    }
+
+    public ChecksummedFile(File file, FaultInjector faults) {
+        this.file = file;
+        this.tmpFile = new File(file.getPath() + ".tmp");
+        this.backupFile = new File(file.getPath() + ".bak");
+        this.faults = faults;
+    }
+
+    /**
+     * Whether any content has been stored, possibly only as an interrupted write or backup.
+     *
+     * @return
+     */
+    public boolean exists() {
+        return file.exists() || tmpFile.exists() || backupFile.exists();
+    }
+
+    /**
+     * Whether the last {@link #read()} could not use the file itself (as a write was interrupted or the file is corrupt) or found the leftover of an interrupted write.
+     *
+     * @return
+     */
+    public boolean wasRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Replace the content of the file. When this method returns normally, the new content is on disk.
+     *
+     * @param data
+     * @throws IOException if the write fails; reading then returns either the previous or the new content
+     */
+    public void write(byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+            DataOutputStream out = new DataOutputStream(fileOut);
+            faults.before(Step.WRITE_HEADER);
+            out.writeInt(MAGIC);
+            out.writeInt(data.length);
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            faults.before(Step.WRITE_PAYLOAD);
+            out.write(data);
+            out.flush();
+            faults.before(Step.SYNC);
+            fileOut.getFD().sync();
+        }
+        faults.before(Step.BACKUP);
+        if (file.exists() && !file.renameTo(backupFile)) {
+            throw new IOException("Cannot move " + file + " to " + backupFile);
+        }
+        faults.before(Step.RENAME);
+        if (!tmpFile.renameTo(file)) {
+            throw new IOException("Cannot move " + tmpFile + " to " + file);
+        }
+    }
+
+    /**
+     * Read the content of the file.
+     *
+     * @return the content or null if nothing has been stored yet
+     * @throws CorruptFileException if content has been stored but no valid copy exists
+     * @throws IOException          if reading fails
+     */
+    public byte[] read() throws IOException {
+        recovered = tmpFile.exists();
+        byte[] data = readValid(file);
+        if (data != null) {
+            return data;
+        }
+        recovered = true;
+        data = readValid(tmpFile);
+        if (data != null) {
+            return data;
+        }
+        data = readValid(backupFile);
+        if (data != null) {
+            return data;
+        }
+        if (exists()) {
+            throw new CorruptFileException("No valid copy of " + file + " found.");
+        }
+        recovered = false;
+        return null;
+    }
+
+    /**
+     * Read the given file if it exists and is complete and valid.
+     *
+     * @param f
+     * @return the content or null if the file does not exist or is not valid
+     * @throws IOException
+     */
+    private static byte[] readValid(File f) throws IOException {
+        if (!f.exists()) {
+            return null;
+        }
+        long length = f.length();
+        if (length < 12) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int size = in.readInt();
+            int checksum = in.readInt();
+            if (size < 0 || size != length - 12) {
+                return null;
+            }
+            byte[] data = new byte[size];
+            in.readFully(data);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            return (int) crc.getValue() == checksum ? data : null;
+        }
+    }
+}
@@ -33,28 +33,53 @@ public class DateTimeUtil {
     private static DateFormat dfDate;
     private static DateFormat dfTime;
 
+    /**
+     * Increased when the time zone or the system clock changed, so that texts and groupings by day derived from dates can be recomputed.
+     */
+    private static volatile int timeSettingsVersion;
+
+    /**
+     * Called when the time zone or the system clock changed. Drops the cached formats, which keep the time zone they were created in.
+     */
+    public static synchronized void onTimeSettingsChanged() {
+        dfDateTime = null;
+        dfDate = null;
+        dfTime = null;
+        dfCompareDay = null;
+        timeSettingsVersion++;
+    }
+
+    public static int getTimeSettingsVersion() {
+        return timeSettingsVersion;
+    }
+
     private static DateFormat getDateTimeFormat() {
-        if (dfDateTime == null) {
-            dfDateTime = DateFormat.getDateTimeInstance();
+        DateFormat df = dfDateTime;
+        if (df == null) {
+            df = DateFormat.getDateTimeInstance();
+            dfDateTime = df;
         }
-        return dfDateTime;
+        return df;
     }
 
 
     private static DateFormat getTimeFormat() {
-        if (dfTime == null) {
-            dfTime = new SimpleDateFormat("HH:mm");
-            DateFormat.getTimeInstance(DateFormat.MEDIUM);
+        DateFormat df = dfTime;
+        if (df == null) {
+            df = new SimpleDateFormat("HH:mm");
+            dfTime = df;
         }
-        return dfTime;
+        return df;
     }
 
 
     private static DateFormat getDateFormat() {
-        if (dfDate == null) {
-            dfDate = DateFormat.getDateInstance(DateFormat.MEDIUM);
+        DateFormat df = dfDate;
+        if (df == null) {
+            df = DateFormat.getDateInstance(DateFormat.MEDIUM);
+            dfDate = df;
         }
-        return dfDate;
+        return df;
     }
 
     /**
@@ -64,10 +89,12 @@ public class DateTimeUtil {
 
     @SuppressLint("SimpleDateFormat")
     private static SimpleDateFormat getDfCompareDay() {
-        if (dfCompareDay == null) {
-            dfCompareDay = new SimpleDateFormat("ddMMyyyy");
+        SimpleDateFormat df = dfCompareDay;
+        if (df == null) {
+            df = new SimpleDateFormat("ddMMyyyy");
+            dfCompareDay = df;
         }
-        return dfCompareDay;
+        return df;
     }
 
     public static String formatDateTime(Date date) {
@@ -94,8 +121,8 @@ public class DateTimeUtil {
      * @return
      */
     public static boolean isSameDay(Date d1, Date d2) {
-        getDfCompareDay();
-        return dfCompareDay.format(d1).equals(dfCompareDay.format(d2));
+        SimpleDateFormat df = getDfCompareDay();
+        return df.format(d1).equals(df.format(d2));
     }
 
     /**
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * A work queue processing tasks associated with keys. Tasks with different keys are run concurrently on the given {@link Executor}, tasks with the same key are run one after another in submission order. Submitting a task which is equal to the last task pending (not yet running) for the same key has no effect except that its completion callback is run together with the pending one's. Equal tasks with other tasks in between are all run, so that the order of submission is kept.
+ *
+ * @param <K> the type of keys
+ * @param <T> the type of tasks (should implement {@link Object#equals(Object)} and {@link Object#hashCode()} to allow deduplication)
+ * @author Felix Wiemuth
+ */
+public class KeyedWorkQueue<K, T> {
+
+    public interface Handler<K, T> {
+        void handle(K key, T task);
+    }
+
+    private final Executor executor;
+    private final Handler<K, T> handler;
+
+    /**
+     * A task waiting to be run, with the callbacks to run when it is done.
+     */
+    private static class PendingTask<T> {
+        private final T task;
+        private final List<Runnable> callbacks = new ArrayList<>();
+
+        private PendingTask(T task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * Tasks waiting to be run per key, in submission order.
+     */
+    private final Map<K, Deque<PendingTask<T>>> pending = new HashMap<>();
+
+    /**
+     * Keys for which a worker is currently scheduled on or running on the executor.
+     */
+    private final Set<K> active = new HashSet<>();
+
+    public KeyedWorkQueue(Executor executor, Handler<K, T> handler) {
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    /**
+     * Submit a task for the given key.
+     *
+     * @param key
+     * @param task
+     * @param onDone run when the task (or the equal pending task it was merged with) has been processed, also if it failed; may be null
+     * @return false if the task was merged with the last pending task of the key, true otherwise
+     */
+    public synchronized boolean submit(K key, T task, Runnable onDone) {
+        Deque<PendingTask<T>> tasks = pending.get(key);
+        if (tasks == null) {
+            tasks = new ArrayDeque<>();
+            pending.put(key, tasks);
+        }
+        boolean added = false;
+        PendingTask<T> last = tasks.peekLast();
+        if (last == null || !last.task.equals(task)) {
+            last = new PendingTask<>(task);
+            tasks.addLast(last);
+            added = true;
+        }
+        if (onDone != null) {
+            last.callbacks.add(onDone);
+        }
+        if (!active.contains(key)) {
+            active.add(key);
+            executor.execute(() -> drain(key));
+        }
+        return added;
+    }
+
+    /**
+     * Whether no tasks are pending or running.
+     *
+     * @return
+     */
+    public synchronized boolean isIdle() {
+        return active.isEmpty();
+    }
+
+    /**
+     * Run pending tasks for the given key until there are none left.
+     *
+     * @param key
+     */
+    private void drain(K key) {
+        while (true) {
+            PendingTask<T> next;
+            synchronized (this) {
+                Deque<PendingTask<T>> tasks = pending.get(key);
+                if (tasks == null || tasks.isEmpty()) {
+                    pending.remove(key);
+                    active.remove(key);
+                    return;
+                }
+                next = tasks.pollFirst();
+            }
+            boolean completed = false;
+            try {
+                handler.handle(key, next.task);
+                completed = true;
+            } finally {
+                for (Runnable callback : next.callbacks) {
+                    callback.run();
+                }
+                if (!completed) {
+                    // The exception is propagated to the executor, so continue with remaining tasks on a new worker
+                    synchronized (this) {
+                        active.remove(key);
+                        Deque<PendingTask<T>> tasks = pending.get(key);
+                        if (tasks != null && !tasks.isEmpty()) {
+                            active.add(key);
+                            executor.execute(() -> drain(key));
+                        } else {
+                            pending.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
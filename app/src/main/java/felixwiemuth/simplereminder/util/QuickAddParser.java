@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the input of a reminder typed in a single line, e.g. into a notification: a text and a time relative to now, given at the end ("call Bob in 10 min", "tea 5m") or at the start ("2h check oven"). The time is a number with an optional unit (m/min/minutes, h/hours, d/days, minutes if omitted). A number at the end or start of the input is therefore always read as a time.
+ *
+ * @author Felix Wiemuth
+ */
+public class QuickAddParser {
+
+    private static final String UNIT = "(m|mins?|minutes?|h|hours?|d|days?)\\b";
+
+    private static final Pattern TIME_AT_END = Pattern.compile("^(?:(.*?)\\s+)??(?:in\\s+)?(\\d{1,5})\\s*(?:" + UNIT + ")?$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TIME_AT_START = Pattern.compile("^(?:in\\s+)?(\\d{1,5})\\s*(?:" + UNIT + ")?(?:\\s+(.*))?$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    public static class Result {
+        private final String text;
+        private final int minutes;
+
+        Result(String text, int minutes) {
+            this.text = text;
+            this.minutes = minutes;
+        }
+
+        /**
+         * @return the text without the time, possibly empty
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the time from now in minutes, -1 if the input contains no time
+         */
+        public int getMinutes() {
+            return minutes;
+        }
+    }
+
+    public static Result parse(String input) {
+        input = input.trim();
+        Matcher m = TIME_AT_END.matcher(input);
+        if (m.matches()) {
+            return new Result(m.group(1) == null ? "" : m.group(1).trim(), toMinutes(m.group(2), m.group(3)));
+        }
+        m = TIME_AT_START.matcher(input);
+        if (m.matches()) {
+            return new Result(m.group(3) == null ? "" : m.group(3).trim(), toMinutes(m.group(1), m.group(2)));
+        }
+        return new Result(input, -1);
+    }
+
+    private static int toMinutes(String amount, String unit) {
+        int minutes = Integer.parseInt(amount);
+        if (unit == null) {
+            return minutes;
+        }
+        switch (Character.toLowerCase(unit.charAt(0))) {
+            case 'h':
+                return minutes * 60;
+            case 'd':
+                return minutes * 60 * 24;
+            default:
+                return minutes;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A prefix tree over previously used texts which returns the best ranked texts starting with a given prefix. Texts are ranked by "frecency": every use of a text adds to its score with a weight that doubles every {@link #HALF_LIFE_MS}, so that both frequent and recent uses rank high.
+ * Every node caches its top {@link #TOP_K} texts, so a query only walks the prefix and never the subtree. This works as scores only ever increase, so a text can only enter a node's top list when it is used itself.
+ * This class is thread-safe.
+ *
+ * @author Felix Wiemuth
+ */
+public class SuggestionTrie {
+
+    /**
+     * Maximum number of suggestions cached per node (and returned per query).
+     */
+    public static final int TOP_K = 5;
+
+    /**
+     * Only this many characters of a text are indexed; longer prefixes are not looked up.
+     */
+    static final int MAX_KEY_LENGTH = 40;
+
+    /**
+     * Time after which the weight of a use doubles.
+     */
+    static final long HALF_LIFE_MS = 14L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Reference time for scores (2020-01-01 UTC), keeping weights in the range of doubles for decades.
+     */
+    private static final long EPOCH_MS = 1577836800000L;
+
+    private static class Entry {
+        /**
+         * The text as last used.
+         */
+        String text;
+        double score;
+
+        Entry(String text) {
+            this.text = text;
+        }
+    }
+
+    private static class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        final List<Entry> top = new ArrayList<>(TOP_K);
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int pos = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            Node child = new Node();
+            newKeys[pos] = c;
+            newChildren[pos] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        /**
+         * Update the top list after the score of the given entry increased.
+         *
+         * @param entry
+         */
+        void offer(Entry entry) {
+            int i = top.indexOf(entry);
+            if (i < 0) {
+                if (top.size() < TOP_K) {
+                    top.add(entry);
+                    i = top.size() - 1;
+                } else if (entry.score > top.get(TOP_K - 1).score) {
+                    i = TOP_K - 1;
+                    top.set(i, entry);
+                } else {
+                    return;
+                }
+            }
+            // Move the entry up to its place
+            while (i > 0 && top.get(i - 1).score < entry.score) {
+                top.set(i, top.get(i - 1));
+                i--;
+            }
+            top.set(i, entry);
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Entries by normalized text.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Record a use of the given text at the given time.
+     *
+     * @param text
+     * @param time
+     */
+    public synchronized void add(String text, long time) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(text.trim());
+            entries.put(key, entry);
+        } else {
+            entry.text = text.trim();
+        }
+        entry.score += Math.pow(2, (double) (time - EPOCH_MS) / HALF_LIFE_MS);
+
+        Node node = root;
+        node.offer(entry);
+        int length = Math.min(key.length(), MAX_KEY_LENGTH);
+        for (int i = 0; i < length; i++) {
+            node = node.getOrAddChild(key.charAt(i));
+            node.offer(entry);
+        }
+    }
+
+    /**
+     * Get the best ranked texts starting with the given prefix (ignoring case), best first.
+     *
+     * @param prefix
+     * @param k      maximum number of results, at most {@link #TOP_K} are returned
+     * @return
+     */
+    public synchronized List<String> suggest(String prefix, int k) {
+        String key = normalize(prefix);
+        List<String> result = new ArrayList<>(Math.min(k, TOP_K));
+        if (key.length() > MAX_KEY_LENGTH) {
+            return result;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node != null) {
+            for (Entry entry : node.top) {
+                if (result.size() == k) {
+                    break;
+                }
+                result.add(entry.text);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
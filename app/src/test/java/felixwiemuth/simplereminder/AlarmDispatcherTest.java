@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static felixwiemuth.simplereminder.TestReminders.reminder;
+import static org.junit.Assert.*;
+
+public class AlarmDispatcherTest {
+
+    private final List<String> applied = new ArrayList<>();
+    private AlarmDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        dispatcher = new AlarmDispatcher(new AlarmDispatcher.Target() {
+            @Override
+            public void cancelNotification(int id) {
+                applied.add("cancelNotification " + id);
+            }
+
+            @Override
+            public void scheduleAlarm(Reminder reminder) {
+                applied.add("schedule " + reminder.getId() + " " + reminder.getDate().getTime());
+            }
+
+            @Override
+            public void cancelAlarm(int id) {
+                applied.add("cancelAlarm " + id);
+            }
+        });
+    }
+
+    @Test
+    public void effectsAreOnlyAppliedAfterCommit() {
+        dispatcher.schedule(reminder(2, Long.MAX_VALUE));
+        dispatcher.dispatch();
+        assertTrue(applied.isEmpty());
+        dispatcher.discard();
+        dispatcher.commit();
+        dispatcher.dispatch();
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    public void effectsPerReminderAreMerged() {
+        long future = System.currentTimeMillis() + 60000;
+        dispatcher.schedule(reminder(2, 1000));
+        dispatcher.cancel(4);
+        dispatcher.commit();
+        dispatcher.reschedule(reminder(2, future));
+        dispatcher.schedule(reminder(4, future));
+        dispatcher.commit();
+        dispatcher.dispatch();
+        assertEquals(Arrays.asList(
+                "cancelNotification 2", "schedule 2 " + future,
+                "cancelNotification 4", "schedule 4 " + future), applied);
+        applied.clear();
+        dispatcher.dispatch();
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    public void rescheduleOfPastReminderCancelsAlarm() {
+        dispatcher.reschedule(reminder(6, 1000));
+        dispatcher.commit();
+        dispatcher.dispatch();
+        assertEquals(Arrays.asList("cancelNotification 6", "cancelAlarm 6"), applied);
+    }
+}
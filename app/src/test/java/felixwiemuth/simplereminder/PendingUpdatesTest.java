@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static felixwiemuth.simplereminder.TestReminders.reminder;
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link PendingUpdates} with an executor which only runs the scheduled saver when told to.
+ */
+public class PendingUpdatesTest {
+
+    private static class FakeExecutor extends ScheduledThreadPoolExecutor {
+        private Runnable scheduled;
+        private ScheduledFuture<?> future;
+
+        FakeExecutor() {
+            super(0);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            assertNull("only one save may be scheduled", scheduled);
+            scheduled = command;
+            future = super.schedule(() -> {
+            }, 1, TimeUnit.DAYS);
+            return future;
+        }
+
+        void runScheduled() {
+            Runnable command = scheduled;
+            scheduled = null;
+            if (command != null && !future.isCancelled()) {
+                command.run();
+            }
+        }
+    }
+
+    private FakeExecutor executor;
+    private PendingUpdates updates;
+    /**
+     * The updates saved by each write.
+     */
+    private List<List<Reminder>> writes;
+
+    @Before
+    public void setUp() {
+        executor = new FakeExecutor();
+        writes = new ArrayList<>();
+        updates = new PendingUpdates(executor, 500, () -> {
+            writes.add(new ArrayList<>(updates.getAll()));
+            updates.clear();
+        });
+    }
+
+    @Test
+    public void updatesAreSavedWithOneWrite() {
+        for (int i = 0; i < 10; i++) {
+            updates.add(reminder(2 * (i % 3), 1000 * i), false);
+        }
+        assertTrue(writes.isEmpty());
+        executor.runScheduled();
+        executor.shutdownNow();
+
+        assertEquals(1, writes.size());
+        List<Reminder> saved = writes.get(0);
+        assertEquals(3, saved.size());
+        assertEquals(0, saved.get(0).getId());
+        assertEquals(9000, saved.get(0).getDate().getTime()); // the last update of each reminder is saved
+        assertEquals(7000, saved.get(1).getDate().getTime());
+        assertEquals(8000, saved.get(2).getDate().getTime());
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void rescheduleIsKeptAndUpdatesAreCopied() {
+        Reminder reminder = reminder(2, 1000);
+        updates.add(reminder, true);
+        updates.add(reminder(2, 3000), false);
+        updates.add(reminder(4, 1000), false);
+        assertEquals(1, updates.getReschedules().size());
+        assertEquals(3000, updates.getReschedules().get(0).getDate().getTime());
+
+        reminder.setText("changed");
+        assertEquals("Reminder 2", updates.get(2).getText());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void clearingCancelsScheduledSave() {
+        updates.add(reminder(2, 1000), true);
+        updates.clear(); // saved with another change
+        executor.runScheduled();
+        assertTrue(writes.isEmpty());
+        assertTrue(updates.getReschedules().isEmpty());
+
+        // A new series of updates schedules a new save
+        updates.add(reminder(2, 2000), false);
+        executor.runScheduled();
+        executor.shutdownNow();
+        assertEquals(1, writes.size());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Map;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static felixwiemuth.simplereminder.TestReminders.reminder;
+import static org.junit.Assert.*;
+
+public class StatusLogTest {
+
+    private File dir;
+    private StatusLog log;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("statuslog").toFile();
+        log = new StatusLog(dir);
+    }
+
+    @Test
+    public void laterRecordsOverrideEarlierOnes() throws IOException {
+        assertTrue(log.read(1).isEmpty());
+        log.append(1, reminder(4, 1000, Reminder.Status.NOTIFIED));
+        log.append(1, reminder(6, 2000, Reminder.Status.NOTIFIED));
+        log.append(1, reminder(4, 3000, Reminder.Status.SCHEDULED));
+        Map<Integer, StatusLog.Entry> entries = log.read(1);
+        assertEquals(2, entries.size());
+        assertEquals(Reminder.Status.SCHEDULED, entries.get(4).status);
+        assertEquals(new Date(3000), entries.get(4).date);
+        assertEquals(Reminder.Status.NOTIFIED, entries.get(6).status);
+        assertEquals(3, log.size(1));
+    }
+
+    @Test
+    public void partialRecordIsIgnored() throws IOException {
+        log.append(1, reminder(100000, 1000, Reminder.Status.DONE));
+        try (FileOutputStream out = new FileOutputStream(new File(dir, "status-1"), true)) {
+            out.write(new byte[]{0, 0, 1, 2, 1, 0}); // interrupted write
+        }
+        Map<Integer, StatusLog.Entry> entries = log.read(1);
+        assertEquals(1, entries.size());
+        assertEquals(Reminder.Status.DONE, entries.get(100000).status);
+    }
+
+    @Test
+    public void appendAfterPartialRecordStaysAligned() throws IOException {
+        log.append(1, reminder(2, 1000, Reminder.Status.DONE));
+        try (FileOutputStream out = new FileOutputStream(new File(dir, "status-1"), true)) {
+            out.write(new byte[]{0, 0, 1, 2, 1, 0}); // interrupted write
+        }
+        assertEquals(1, log.size(1));
+        log.append(1, reminder(4, 2000, Reminder.Status.NOTIFIED));
+        log.append(1, reminder(6, 3000, Reminder.Status.DONE));
+        assertEquals(3, log.size(1));
+        Map<Integer, StatusLog.Entry> entries = log.read(1);
+        assertEquals(3, entries.size());
+        assertEquals(Reminder.Status.NOTIFIED, entries.get(4).status);
+        assertEquals(new Date(3000), entries.get(6).date);
+    }
+
+    @Test
+    public void readingStopsAtInvalidRecord() throws IOException {
+        log.append(1, reminder(2, 1000, Reminder.Status.DONE));
+        try (FileOutputStream out = new FileOutputStream(new File(dir, "status-1"), true)) {
+            out.write(new byte[]{0, 0, 0, 4, 9, 0, 0, 0, 0, 0, 0, 0, 0}); // invalid status
+        }
+        log.append(1, reminder(4, 1000, Reminder.Status.DONE));
+        Map<Integer, StatusLog.Entry> entries = log.read(1);
+        assertEquals(1, entries.size());
+        assertEquals(Reminder.Status.DONE, entries.get(2).status);
+
+        // The log was truncated before the invalid record, so later records are read
+        assertEquals(1, log.size(1));
+        log.append(1, reminder(6, 2000, Reminder.Status.NOTIFIED));
+        assertEquals(Reminder.Status.NOTIFIED, log.read(1).get(6).status);
+    }
+
+    @Test
+    public void otherGenerationsAreDeleted() throws IOException {
+        log.append(1, reminder(2, 1000, Reminder.Status.DONE));
+        log.append(2, reminder(2, 1000, Reminder.Status.NOTIFIED));
+        log.deleteOtherGenerations(2);
+        assertTrue(log.read(1).isEmpty());
+        assertEquals(Reminder.Status.NOTIFIED, log.read(2).get(2).status);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import java.util.Date;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+/**
+ * Creates the reminders used by tests.
+ */
+class TestReminders {
+
+    static Reminder reminder(int id, long date) {
+        return Reminder.builder().id(id).date(new Date(date)).text("Reminder " + id).build();
+    }
+
+    static Reminder reminder(int id, long date, Reminder.Status status) {
+        Reminder reminder = reminder(id, date);
+        reminder.setStatus(status);
+        return reminder;
+    }
+}
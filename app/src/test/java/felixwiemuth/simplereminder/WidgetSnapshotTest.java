@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static felixwiemuth.simplereminder.TestReminders.reminder;
+import static org.junit.Assert.*;
+
+public class WidgetSnapshotTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(Files.createTempDirectory("widget").toFile(), "snapshot");
+    }
+
+    private static List<Reminder> reminders() {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            reminders.add(reminder(2 * i, 10000 - 1000 * i, i % 3 == 0 ? Reminder.Status.DONE : Reminder.Status.SCHEDULED));
+        }
+        return reminders;
+    }
+
+    @Test
+    public void selectsNextUndoneReminders() {
+        List<WidgetSnapshot.Entry> entries = WidgetSnapshot.select(reminders());
+        assertEquals(WidgetSnapshot.MAX_ENTRIES, entries.size());
+        // Undone reminders are 1, 2, 4, 5, 7, 8 (by index), later indices being due earlier
+        assertEquals(16, entries.get(0).getId());
+        assertEquals(new Date(2000), entries.get(0).getDate());
+        assertEquals(4, entries.get(4).getId());
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        WidgetSnapshot snapshot = new WidgetSnapshot(file);
+        assertNull(WidgetSnapshot.read(file));
+        List<Reminder> reminders = reminders();
+        reminders.get(8).setStatus(Reminder.Status.NOTIFIED);
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 2 * WidgetSnapshot.MAX_TEXT_LENGTH; i++) {
+            longText.append('x');
+        }
+        reminders.add(Reminder.builder().id(100).date(new Date(0)).text(longText.toString()).build());
+        assertTrue(snapshot.update(reminders));
+        assertFalse(snapshot.update(reminders));
+        List<WidgetSnapshot.Entry> entries = WidgetSnapshot.read(file);
+        assertEquals(WidgetSnapshot.select(reminders), entries);
+        assertEquals(WidgetSnapshot.MAX_TEXT_LENGTH, entries.get(0).getText().length());
+        assertTrue(entries.get(1).isDue());
+        assertFalse(entries.get(2).isDue());
+    }
+
+    @Test
+    public void affectedByChanges() throws IOException {
+        new WidgetSnapshot(file).update(reminders());
+        // A new instance reads the existing file
+        WidgetSnapshot snapshot = new WidgetSnapshot(file);
+        assertTrue(snapshot.isAffectedBy(reminder(16, 2000, Reminder.Status.DONE))); // shown
+        assertTrue(snapshot.isAffectedBy(reminder(100, 0, Reminder.Status.SCHEDULED))); // earlier than shown ones
+        assertFalse(snapshot.isAffectedBy(reminder(100, 20000, Reminder.Status.SCHEDULED))); // later than shown ones
+        assertFalse(snapshot.isAffectedBy(reminder(100, 0, Reminder.Status.DONE)));
+    }
+}
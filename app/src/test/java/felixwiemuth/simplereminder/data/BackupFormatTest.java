@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BackupFormatTest {
+
+    private static List<Reminder> reminders(int count, String text) {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reminders.add(Reminder.builder().id(2 * i).date(new Date(1000L * i)).text(text + i).build());
+        }
+        return reminders;
+    }
+
+    private static byte[] write(List<Reminder> reminders) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BackupFormat.write(Channels.newChannel(out), reminders);
+        return out.toByteArray();
+    }
+
+    private static int read(byte[] backup, int batchSize, List<List<Reminder>> batches) throws IOException {
+        return BackupFormat.read(Channels.newChannel(new ByteArrayInputStream(backup)), batchSize, batches::add);
+    }
+
+    @Test
+    public void roundTripInBatches() throws IOException {
+        List<Reminder> reminders = reminders(250, "Reminder ");
+        reminders.get(3).setStatus(Reminder.Status.DONE);
+        List<List<Reminder>> batches = new ArrayList<>();
+        assertEquals(250, read(write(reminders), 100, batches));
+        assertEquals(3, batches.size());
+        assertEquals(100, batches.get(0).size());
+        assertEquals(50, batches.get(2).size());
+        Reminder reminder = batches.get(0).get(3);
+        assertEquals(6, reminder.getId());
+        assertEquals(new Date(3000), reminder.getDate());
+        assertEquals("Reminder 3", reminder.getText());
+        assertEquals(Reminder.Status.DONE, reminder.getStatus());
+        assertEquals(498, batches.get(2).get(49).getId());
+    }
+
+    /**
+     * Lines longer than the buffer and multi-byte characters split between two reads.
+     */
+    @Test
+    public void longLinesWithMultiByteCharacters() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("\u00e9\u20ac");
+        }
+        List<Reminder> reminders = reminders(3, text.toString());
+        List<List<Reminder>> batches = new ArrayList<>();
+        assertEquals(3, read(write(reminders), 10, batches));
+        assertEquals(text + "2", batches.get(0).get(2).getText());
+    }
+
+    @Test
+    public void emptyBackupAndMissingFinalNewline() throws IOException {
+        List<List<Reminder>> batches = new ArrayList<>();
+        assertEquals(0, read(write(new ArrayList<>()), 10, batches));
+        assertTrue(batches.isEmpty());
+        byte[] backup = write(reminders(1, "Reminder "));
+        byte[] truncated = new byte[backup.length - 1];
+        System.arraycopy(backup, 0, truncated, 0, truncated.length);
+        assertEquals(1, read(truncated, 10, batches));
+    }
+
+    @Test(expected = BackupFormat.InvalidBackupException.class)
+    public void rejectsMissingHeader() throws IOException {
+        read("[]\n".getBytes("UTF-8"), 10, new ArrayList<>());
+    }
+
+    @Test(expected = BackupFormat.InvalidBackupException.class)
+    public void rejectsEmptyFile() throws IOException {
+        read(new byte[0], 10, new ArrayList<>());
+    }
+
+    @Test
+    public void rejectsInvalidIds() throws IOException {
+        String backup = BackupFormat.HEADER + "\n";
+        for (String line : new String[]{
+                "{\"id\":3,\"date\":0,\"text\":\"\",\"status\":\"SCHEDULED\"}",
+                "{\"id\":-4,\"date\":0,\"text\":\"\",\"status\":\"SCHEDULED\"}"}) {
+            try {
+                read((backup + line + "\n").getBytes("UTF-8"), 10, new ArrayList<>());
+                fail();
+            } catch (BackupFormat.InvalidBackupException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void invalidLineAfterHandledBatch() throws IOException {
+        String backup = new String(write(reminders(2, "Reminder ")), "UTF-8") + "{\"id\": 3}\n";
+        List<List<Reminder>> batches = new ArrayList<>();
+        try {
+            read(backup.getBytes("UTF-8"), 2, batches);
+            fail();
+        } catch (BackupFormat.InvalidBackupException e) {
+            assertEquals(1, batches.size());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CodecsTest {
+
+    private static String remindersJson(int count) {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reminders.add(Reminder.builder().id(2 * i).date(new Date(1000L * i)).text("Reminder " + i).build());
+        }
+        return Reminder.toJson(reminders);
+    }
+
+    @Test
+    public void remindersRoundTrip() {
+        List<Reminder> reminders = Reminder.fromJson(remindersJson(3));
+        assertEquals(3, reminders.size());
+        assertEquals(4, reminders.get(2).getId());
+        assertEquals(new Date(2000), reminders.get(2).getDate());
+        assertEquals("Reminder 2", reminders.get(2).getText());
+        assertEquals(Reminder.Status.SCHEDULED, reminders.get(2).getStatus());
+        assertTrue(Reminder.fromJson("[]").isEmpty());
+    }
+
+    /**
+     * A newly created registry must decode a reminders list exactly like the warmed-up shared one.
+     */
+    @Test
+    public void warmedUpRegistryDecodesLikeNewOne() {
+        String json = remindersJson(200);
+        List<Reminder> fresh = Codecs.decode(new Codecs(Codecs.createGson()).getReminderListAdapter(), json);
+        Codecs.warmUp();
+        List<Reminder> warm = Reminder.fromJson(json);
+
+        assertEquals(fresh.size(), warm.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            assertEquals(fresh.get(i).getId(), warm.get(i).getId());
+            assertEquals(fresh.get(i).getDate(), warm.get(i).getDate());
+            assertEquals(fresh.get(i).getText(), warm.get(i).getText());
+            assertEquals(fresh.get(i).getStatus(), warm.get(i).getStatus());
+        }
+        assertEquals(json, Reminder.toJson(warm));
+    }
+}
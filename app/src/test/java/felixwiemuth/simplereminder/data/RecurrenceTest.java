@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class RecurrenceTest {
+
+    private static Date date(int year, int month, int day, int hour, int minute) {
+        return new GregorianCalendar(year, month, day, hour, minute).getTime();
+    }
+
+    @Test
+    public void adjustToTimeZoneKeepsLocalTime() {
+        TimeZone berlin = TimeZone.getTimeZone("Europe/Berlin");
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        Calendar c = new GregorianCalendar(berlin);
+        c.clear();
+        c.set(2021, Calendar.MARCH, 1, 8, 15);
+        Date occurrence = c.getTime();
+        Date adjusted = Recurrence.daily(1).adjustToTimeZone(occurrence, berlin, newYork);
+        assertEquals(6 * 60 * 60 * 1000L, adjusted.getTime() - occurrence.getTime());
+        c = new GregorianCalendar(newYork);
+        c.setTime(adjusted);
+        assertEquals(8, c.get(Calendar.HOUR_OF_DAY));
+        assertEquals(15, c.get(Calendar.MINUTE));
+        assertEquals(occurrence, Recurrence.everyHours(1).adjustToTimeZone(occurrence, berlin, newYork));
+    }
+
+    @Test
+    public void hourlySkipsMissedOccurrences() {
+        Recurrence r = Recurrence.everyHours(2);
+        Date last = date(2021, Calendar.MARCH, 1, 8, 0);
+        assertEquals(date(2021, Calendar.MARCH, 1, 10, 0), r.nextOccurrence(last, last));
+        assertEquals(date(2022, Calendar.MARCH, 1, 10, 0), r.nextOccurrence(last, date(2022, Calendar.MARCH, 1, 9, 30)));
+    }
+
+    @Test
+    public void dailyKeepsTimeOfDay() {
+        Recurrence r = Recurrence.daily(1);
+        Date last = date(2021, Calendar.MARCH, 1, 8, 15);
+        assertEquals(date(2021, Calendar.MARCH, 4, 8, 15), r.nextOccurrence(last, date(2021, Calendar.MARCH, 3, 9, 0)));
+    }
+
+    @Test
+    public void weeklyOnSelectedDays() {
+        Recurrence r = Recurrence.weekly(1, Calendar.MONDAY, Calendar.FRIDAY);
+        Date monday = date(2021, Calendar.MARCH, 1, 9, 0);
+        Date friday = date(2021, Calendar.MARCH, 5, 9, 0);
+        assertEquals(friday, r.nextOccurrence(monday, monday));
+        assertEquals(date(2021, Calendar.MARCH, 8, 9, 0), r.nextOccurrence(friday, friday));
+        assertEquals(monday, r.firstOccurrence(date(2021, Calendar.FEBRUARY, 27, 9, 0)));
+    }
+
+    @Test
+    public void everySecondWeek() {
+        Recurrence r = Recurrence.weekly(2, Calendar.WEDNESDAY);
+        Date wednesday = date(2021, Calendar.MARCH, 3, 9, 0);
+        assertEquals(date(2021, Calendar.MARCH, 17, 9, 0), r.nextOccurrence(wednesday, wednesday));
+    }
+
+    @Test
+    public void monthlyClampsToEndOfMonth() {
+        Recurrence r = Recurrence.monthly(1, 31);
+        Date january = date(2021, Calendar.JANUARY, 31, 9, 0);
+        Date february = r.nextOccurrence(january, january);
+        assertEquals(date(2021, Calendar.FEBRUARY, 28, 9, 0), february);
+        assertEquals(date(2021, Calendar.MARCH, 31, 9, 0), r.nextOccurrence(february, february));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexTest {
+
+    private static Set<Integer> ids(Integer... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    @Test
+    public void searchMatchesPrefixesOfAllQueryTokens() {
+        SearchIndex index = new SearchIndex();
+        index.put(0, "Call Mom about the birthday");
+        index.put(2, "Buy birthday cake");
+        index.put(4, "Caf\u00e9 meeting");
+        assertEquals(ids(0, 2), index.search("birth"));
+        assertEquals(ids(2), index.search("BIRTHDAY cak"));
+        assertEquals(ids(4), index.search("cafe"));
+        assertEquals(ids(), index.search("  "));
+    }
+
+    @Test
+    public void updatesReplaceOldTokens() {
+        SearchIndex index = new SearchIndex();
+        index.put(0, "water plants");
+        assertFalse(index.put(0, "Water plants!"));
+        assertTrue(index.put(0, "water garden"));
+        assertEquals(ids(), index.search("plants"));
+        assertEquals(ids(0), index.search("gard"));
+        assertTrue(index.remove(0));
+        assertEquals(ids(), index.search("water"));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.provider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static org.junit.Assert.*;
+
+public class ReminderQueryIndexTest {
+    private static final int COUNT = 1000;
+
+    private ReminderQueryIndex index;
+
+    /**
+     * Reminder i is due at time 10 * i and has status i % 3, added in reverse order.
+     */
+    @Before
+    public void setUp() {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = COUNT - 1; i >= 0; i--) {
+            Reminder reminder = Reminder.builder().id(2 * i).date(new Date(10L * i)).text("r" + i).build();
+            reminder.setStatus(Reminder.Status.values()[i % 3]);
+            reminders.add(reminder);
+        }
+        index = new ReminderQueryIndex(reminders);
+    }
+
+    @Test
+    public void selectAllOrderedByDate() {
+        ReminderQueryIndex.Selection selection = index.select(null, Long.MIN_VALUE, Long.MAX_VALUE, false, 0, Integer.MAX_VALUE);
+        assertEquals(COUNT, selection.getCount());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(2 * i, selection.get(i).getId());
+        }
+        selection = index.select(EnumSet.allOf(Reminder.Status.class), Long.MIN_VALUE, Long.MAX_VALUE, true, 0, Integer.MAX_VALUE);
+        assertEquals(COUNT, selection.getCount());
+        assertEquals(2 * (COUNT - 1), selection.get(0).getId());
+        assertEquals(0, selection.get(COUNT - 1).getId());
+    }
+
+    @Test
+    public void selectDateRange() {
+        // Times 100 to 190 inclusive
+        ReminderQueryIndex.Selection selection = index.select(null, 100, 200, false, 0, Integer.MAX_VALUE);
+        assertEquals(10, selection.getCount());
+        assertEquals("r10", selection.get(0).getText());
+        assertEquals("r19", selection.get(9).getText());
+        assertEquals(0, index.select(null, 200, 100, false, 0, Integer.MAX_VALUE).getCount());
+        assertEquals(0, index.select(null, 10L * COUNT, Long.MAX_VALUE, false, 0, Integer.MAX_VALUE).getCount());
+    }
+
+    @Test
+    public void selectStatus() {
+        ReminderQueryIndex.Selection selection = index.select(EnumSet.of(Reminder.Status.DONE), 100, 200, false, 0, Integer.MAX_VALUE);
+        assertEquals(3, selection.getCount()); // 11, 14, 17
+        assertEquals("r11", selection.get(0).getText());
+        assertEquals("r17", selection.get(2).getText());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Reminder.Status.DONE, selection.get(i).getStatus());
+        }
+
+        selection = index.select(EnumSet.of(Reminder.Status.SCHEDULED, Reminder.Status.DONE), 100, 200, true, 0, Integer.MAX_VALUE);
+        assertEquals(6, selection.getCount()); // 11, 12, 14, 15, 17, 18
+        assertEquals("r18", selection.get(0).getText());
+        assertEquals("r17", selection.get(1).getText());
+        assertEquals("r11", selection.get(5).getText());
+
+        assertEquals(0, index.select(EnumSet.noneOf(Reminder.Status.class), Long.MIN_VALUE, Long.MAX_VALUE, false, 0, Integer.MAX_VALUE).getCount());
+    }
+
+    @Test
+    public void pages() {
+        int total = 0;
+        int last = -1;
+        for (int offset = 0; ; offset += 100) {
+            ReminderQueryIndex.Selection page = index.select(EnumSet.of(Reminder.Status.NOTIFIED), Long.MIN_VALUE, Long.MAX_VALUE, false, offset, 100);
+            assertEquals(333, page.getMatchingCount());
+            if (page.getCount() == 0) {
+                break;
+            }
+            for (int i = 0; i < page.getCount(); i++) {
+                assertTrue(page.get(i).getId() > last);
+                last = page.get(i).getId();
+            }
+            total += page.getCount();
+        }
+        assertEquals(333, total);
+        ReminderQueryIndex.Selection lastPage = index.select(null, Long.MIN_VALUE, Long.MAX_VALUE, true, 990, 100);
+        assertEquals(10, lastPage.getCount());
+        assertEquals(18, lastPage.get(0).getId());
+        assertEquals(0, lastPage.get(9).getId());
+    }
+
+    @Test
+    public void selectId() {
+        ReminderQueryIndex.Selection selection = index.selectId(84);
+        assertEquals(1, selection.getCount());
+        assertEquals("r42", selection.get(0).getText());
+        assertEquals(0, index.selectId(85).getCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfRange() {
+        index.select(null, Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 5).get(5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeOffset() {
+        index.select(null, Long.MIN_VALUE, Long.MAX_VALUE, false, -1, 5);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static org.junit.Assert.*;
+
+public class DirectorySyncTransportTest {
+    private File directory;
+    private DirectorySyncTransport phone;
+    private DirectorySyncTransport tablet;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File(Files.createTempDirectory("sync").toFile(), "shared"); // created by the first publication
+        phone = new DirectorySyncTransport(directory, "phone");
+        tablet = new DirectorySyncTransport(directory, "tablet");
+    }
+
+    private static SyncRecord record(String text) {
+        return SyncRecord.of("phone/0", 1, "phone", Reminder.builder().id(0).date(new Date(1000)).text(text).build());
+    }
+
+    @Test
+    public void readsRecordsOfOtherDevicesOnce() throws IOException {
+        assertTrue(tablet.read(null).getRecords().isEmpty());
+        phone.publish(Arrays.asList(record("a"), SyncRecord.deletion("phone/2", 2, "phone")));
+        assertTrue(phone.read(null).getRecords().isEmpty()); // own records are not read
+
+        SyncTransport.Changes changes = tablet.read(null);
+        assertEquals(2, changes.getRecords().size());
+        assertEquals("a", changes.getRecords().get(0).getReminder().getText());
+        assertTrue(changes.getRecords().get(1).isDeleted());
+        assertEquals("phone/2", changes.getRecords().get(1).getUid());
+
+        String cursor = changes.getCursor();
+        assertTrue(tablet.read(cursor).getRecords().isEmpty());
+        phone.publish(Collections.singletonList(record("b")));
+        changes = tablet.read(cursor);
+        assertEquals(1, changes.getRecords().size());
+        assertEquals("b", changes.getRecords().get(0).getReminder().getText());
+    }
+
+    @Test
+    public void incompleteLineIsReadAgain() throws IOException {
+        phone.publish(Collections.singletonList(record("a")));
+        String cursor = tablet.read(null).getCursor();
+        try (FileOutputStream log = new FileOutputStream(new File(directory, "phone.log"), true)) {
+            log.write("{\"uid\":".getBytes("UTF-8")); // a partially transferred line
+        }
+        SyncTransport.Changes changes = tablet.read(cursor);
+        assertTrue(changes.getRecords().isEmpty());
+        assertEquals(cursor, changes.getCursor());
+    }
+
+    @Test
+    public void replacedLogIsReadFromStart() throws IOException {
+        phone.publish(Arrays.asList(record("a"), record("b")));
+        String cursor = tablet.read(null).getCursor();
+        assertTrue(new File(directory, "phone.log").delete());
+        phone.publish(Collections.singletonList(record("c")));
+        SyncTransport.Changes changes = tablet.read(cursor);
+        assertEquals(1, changes.getRecords().size());
+        assertEquals("c", changes.getRecords().get(0).getReminder().getText());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidRecord() throws IOException {
+        assertTrue(directory.mkdirs());
+        try (FileOutputStream log = new FileOutputStream(new File(directory, "phone.log"))) {
+            log.write("not a record\n".getBytes("UTF-8"));
+        }
+        tablet.read(null);
+    }
+}
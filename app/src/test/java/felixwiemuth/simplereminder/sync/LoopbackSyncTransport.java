@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link SyncTransport} keeping all published records in memory, shared by all devices using the same instance. The cursor is the number of records read.
+ */
+class LoopbackSyncTransport implements SyncTransport {
+    private final List<SyncRecord> records = new ArrayList<>();
+    private int reads;
+
+    @Override
+    public Changes read(String cursor) {
+        reads++;
+        int position = cursor == null ? 0 : Integer.parseInt(cursor);
+        return new Changes(new ArrayList<>(records.subList(position, records.size())), Integer.toString(records.size()));
+    }
+
+    @Override
+    public void publish(List<SyncRecord> records) {
+        this.records.addAll(records);
+    }
+
+    int size() {
+        return records.size();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import felixwiemuth.simplereminder.data.Reminder;
+
+import static org.junit.Assert.*;
+
+public class SyncEngineTest {
+
+    /**
+     * A device with reminders in memory, recording its changes like the reminder manager.
+     */
+    private static class Device implements SyncEngine.LocalStore {
+        final Map<Integer, Reminder> reminders = new TreeMap<>();
+        SyncState state;
+        int nextId;
+        int applied;
+
+        Device(String id) {
+            state = SyncState.create(id);
+        }
+
+        int add(String text) {
+            int id = nextId;
+            nextId += 2;
+            reminders.put(id, Reminder.builder().id(id).date(new Date(1000)).text(text).build());
+            state.onChanged(id);
+            return id;
+        }
+
+        void setStatus(int id, Reminder.Status status) {
+            reminders.get(id).setStatus(status);
+            state.onChanged(id);
+        }
+
+        void remove(int id) {
+            reminders.remove(id);
+            state.onRemoved(id);
+        }
+
+        SyncEngine.Result sync(SyncTransport transport) throws IOException {
+            return SyncEngine.sync(state, this, transport);
+        }
+
+        /**
+         * Simulate a restart by saving and loading the state.
+         */
+        void restart() {
+            state = SyncState.fromJson(state.toJson());
+        }
+
+        Reminder find(String text) {
+            for (Reminder reminder : reminders.values()) {
+                if (reminder.getText().equals(text)) {
+                    return reminder;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Map<Integer, Reminder> getReminders(Set<Integer> ids) {
+            Map<Integer, Reminder> result = new HashMap<>();
+            for (Integer id : ids) {
+                if (reminders.containsKey(id)) {
+                    result.put(id, reminders.get(id));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int[] apply(List<Reminder> updated, List<Reminder> added, Set<Integer> removed) {
+            applied++;
+            for (Reminder reminder : updated) {
+                assertTrue(reminders.containsKey(reminder.getId()));
+                reminders.put(reminder.getId(), reminder);
+            }
+            int[] ids = new int[added.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nextId;
+                nextId += 2;
+                reminders.put(ids[i], added.get(i).copyWithId(ids[i]));
+            }
+            for (Integer id : removed) {
+                reminders.remove(id);
+            }
+            return ids;
+        }
+
+        @Override
+        public void runExclusively(Runnable operation) {
+            operation.run();
+        }
+    }
+
+    private LoopbackSyncTransport transport;
+    private Device phone;
+    private Device tablet;
+
+    @Before
+    public void setUp() {
+        transport = new LoopbackSyncTransport();
+        phone = new Device("phone");
+        tablet = new Device("tablet");
+    }
+
+    @Test
+    public void addedRemindersAreExchanged() throws IOException {
+        phone.add("a");
+        tablet.add("b");
+        assertEquals(1, phone.sync(transport).getSent());
+        SyncEngine.Result result = tablet.sync(transport);
+        assertEquals(1, result.getReceived());
+        assertEquals(1, result.getSent());
+        assertEquals(1, phone.sync(transport).getReceived());
+
+        assertEquals(2, phone.reminders.size());
+        assertEquals(2, tablet.reminders.size());
+        assertNotNull(phone.find("b"));
+        assertNotNull(tablet.find("a"));
+        // Both reminders were created with ID 0 and got a new ID on the other device
+        assertNotEquals(tablet.find("a").getId(), tablet.find("b").getId());
+    }
+
+    @Test
+    public void onlyChangesAreExchanged() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            phone.add("r" + i);
+        }
+        phone.sync(transport);
+        tablet.sync(transport);
+        phone.sync(transport);
+        int published = transport.size();
+
+        // Nothing changed
+        assertEquals(0, phone.sync(transport).getSent());
+        assertEquals(0, tablet.sync(transport).getReceived());
+        assertEquals(published, transport.size());
+
+        // One change
+        phone.setStatus(phone.find("r42").getId(), Reminder.Status.DONE);
+        assertEquals(1, phone.sync(transport).getSent());
+        int applied = tablet.applied;
+        assertEquals(1, tablet.sync(transport).getReceived());
+        assertEquals(applied + 1, tablet.applied);
+        assertEquals(Reminder.Status.DONE, tablet.find("r42").getStatus());
+        assertEquals(published + 1, transport.size());
+    }
+
+    @Test
+    public void changesOfReceivedRemindersAreExchanged() throws IOException {
+        phone.add("a");
+        phone.sync(transport);
+        tablet.sync(transport);
+        tablet.setStatus(tablet.find("a").getId(), Reminder.Status.DONE);
+        tablet.sync(transport);
+        phone.sync(transport);
+        assertEquals(Reminder.Status.DONE, phone.find("a").getStatus());
+        assertEquals(1, phone.reminders.size());
+    }
+
+    @Test
+    public void concurrentChangesConverge() throws IOException {
+        int id = phone.add("a");
+        phone.sync(transport);
+        tablet.sync(transport);
+        int tabletId = tablet.find("a").getId();
+
+        // Both change the reminder without seeing the other's change
+        phone.setStatus(id, Reminder.Status.DONE);
+        tablet.setStatus(tabletId, Reminder.Status.NOTIFIED);
+        phone.sync(transport);
+        tablet.sync(transport);
+        phone.sync(transport);
+
+        // Same version number, the change of the device with the greater ID wins
+        assertEquals(Reminder.Status.NOTIFIED, phone.reminders.get(id).getStatus());
+        assertEquals(Reminder.Status.NOTIFIED, tablet.reminders.get(tabletId).getStatus());
+    }
+
+    @Test
+    public void laterChangeWins() throws IOException {
+        int id = phone.add("a");
+        phone.sync(transport);
+        tablet.sync(transport);
+        int tabletId = tablet.find("a").getId();
+
+        // The phone changed the reminder after seeing more changes than the tablet
+        tablet.setStatus(tabletId, Reminder.Status.NOTIFIED);
+        phone.setStatus(id, Reminder.Status.NOTIFIED);
+        phone.setStatus(id, Reminder.Status.DONE);
+        tablet.sync(transport);
+        phone.sync(transport);
+        tablet.sync(transport);
+
+        assertEquals(Reminder.Status.DONE, phone.reminders.get(id).getStatus());
+        assertEquals(Reminder.Status.DONE, tablet.reminders.get(tabletId).getStatus());
+    }
+
+    @Test
+    public void deletionsArePropagated() throws IOException {
+        int id = phone.add("a");
+        phone.add("b");
+        phone.sync(transport);
+        tablet.sync(transport);
+        phone.remove(id);
+        assertEquals(1, phone.sync(transport).getSent());
+        tablet.sync(transport);
+        assertNull(tablet.find("a"));
+        assertNotNull(tablet.find("b"));
+    }
+
+    @Test
+    public void olderChangeDoesNotRestoreDeletedReminder() throws IOException {
+        phone.add("a");
+        phone.sync(transport);
+        tablet.sync(transport);
+        int tabletId = tablet.find("a").getId();
+
+        phone.setStatus(phone.find("a").getId(), Reminder.Status.DONE);
+        tablet.remove(tabletId);
+        tablet.setStatus(tablet.add("c"), Reminder.Status.DONE); // advances the tablet's clock
+        tablet.sync(transport);
+        phone.sync(transport);
+        tablet.sync(transport);
+
+        assertNull(phone.find("a"));
+        assertNull(tablet.find("a"));
+        assertNotNull(phone.find("c"));
+    }
+
+    @Test
+    public void stateSurvivesRestart() throws IOException {
+        phone.add("a");
+        phone.sync(transport);
+        tablet.sync(transport);
+        tablet.restart();
+        phone.setStatus(phone.find("a").getId(), Reminder.Status.DONE);
+        phone.sync(transport);
+        assertEquals(1, tablet.sync(transport).getReceived());
+        assertEquals(1, tablet.reminders.size());
+        assertEquals(Reminder.Status.DONE, tablet.find("a").getStatus());
+
+        tablet.setStatus(tablet.find("a").getId(), Reminder.Status.NOTIFIED);
+        tablet.restart();
+        assertTrue(tablet.state.hasChanges());
+        assertEquals(1, tablet.sync(transport).getSent());
+    }
+
+    /**
+     * A change made while publishing is published by the next synchronization.
+     */
+    @Test
+    public void changeWhilePublishingIsKept() throws IOException {
+        int id = phone.add("a");
+        phone.sync(new LoopbackSyncTransport() {
+            @Override
+            public void publish(List<SyncRecord> records) {
+                transport.publish(records);
+                phone.setStatus(id, Reminder.Status.DONE);
+            }
+        });
+        assertTrue(phone.state.hasChanges());
+        assertEquals(1, phone.sync(transport).getSent());
+        tablet.sync(transport);
+        assertEquals(Reminder.Status.DONE, tablet.find("a").getStatus());
+    }
+
+    @Test
+    public void oldTombstonesArePruned() throws IOException {
+        int id = phone.add("a");
+        phone.sync(transport);
+        phone.remove(id);
+        phone.sync(transport);
+        assertTrue(phone.state.getDeleted().isEmpty());
+        assertNotNull(phone.state.getTombstone("phone/" + id));
+        phone.state.pruneTombstones(System.currentTimeMillis() + 1);
+        assertNull(phone.state.getTombstone("phone/" + id));
+    }
+
+    /**
+     * A change published by a failing transport is published by the next synchronization.
+     */
+    @Test
+    public void failedPublicationIsRepeated() throws IOException {
+        phone.add("a");
+        try {
+            phone.sync(new LoopbackSyncTransport() {
+                @Override
+                public void publish(List<SyncRecord> records) {
+                    throw new RuntimeException("offline");
+                }
+            });
+            fail();
+        } catch (RuntimeException e) {
+            // expected
+        }
+        assertTrue(phone.state.hasChanges());
+        assertEquals(1, phone.sync(transport).getSent());
+        tablet.sync(transport);
+        assertNotNull(tablet.find("a"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.sync;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class SyncStateStoreTest {
+    private File dir;
+    private SyncStateStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = new File(Files.createTempDirectory("sync").toFile(), "state");
+        store = new SyncStateStore(dir);
+    }
+
+    private static void assertSameVersion(SyncState expected, SyncState actual, int id) {
+        SyncState.Version e = expected.getVersion(id);
+        SyncState.Version a = actual.getVersion(id);
+        assertEquals(e.getUid(), a.getUid());
+        assertEquals(e.getVersion(), a.getVersion());
+        assertEquals(e.getOrigin(), a.getOrigin());
+    }
+
+    @Test
+    public void recordedChangesAreReplayed() throws IOException {
+        assertNull(store.load());
+        SyncState state = SyncState.create("phone");
+        state.onChanged(0);
+        store.save(state);
+        store.recordChange(state, 2);
+        store.recordChange(state, 0);
+        store.recordChange(state, 4);
+        store.recordRemoval(state, 4);
+
+        SyncState loaded = store.load();
+        assertSameVersion(state, loaded, 0);
+        assertSameVersion(state, loaded, 2);
+        assertNull(loaded.getVersion(4));
+        assertNotNull(loaded.getTombstone("phone/4"));
+        assertEquals(state.getChanged(), loaded.getChanged());
+        assertEquals(state.getDeleted(), loaded.getDeleted());
+
+        // Changes after loading get the same versions
+        store.recordChange(loaded, 6);
+        state.onChanged(6);
+        assertSameVersion(state, store.load(), 6);
+    }
+
+    @Test
+    public void saveStartsNewLog() throws IOException {
+        SyncState state = SyncState.create("phone");
+        store.save(state);
+        store.recordChange(state, 0);
+        store.save(state);
+        for (String name : dir.list()) {
+            assertFalse(name.startsWith("changes-")); // the log of the old generation is deleted
+        }
+        store.recordChange(state, 0);
+        SyncState loaded = store.load();
+        assertSameVersion(state, loaded, 0);
+        assertEquals(2, loaded.getVersion(0).getVersion());
+    }
+
+    @Test
+    public void partialRecordIsIgnored() throws IOException {
+        SyncState state = SyncState.create("phone");
+        store.save(state);
+        store.recordChange(state, 0);
+        File log = new File(dir, "changes-" + state.getLogGeneration());
+        try (FileOutputStream out = new FileOutputStream(log, true)) {
+            out.write(new byte[]{0, 0}); // interrupted write
+        }
+        assertEquals(1, store.load().getChanged().size());
+        store.recordChange(state, 2);
+        assertEquals(10, log.length());
+        assertSameVersion(state, store.load(), 2);
+    }
+}
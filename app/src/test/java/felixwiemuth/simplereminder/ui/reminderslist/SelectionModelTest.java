@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.ui.reminderslist;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SelectionModelTest {
+
+    private static SelectionModel model(int... categories) {
+        SelectionModel model = new SelectionModel(3);
+        model.setItems(categories);
+        return model;
+    }
+
+    @Test
+    public void toggleMaintainsCounts() {
+        SelectionModel model = model(0, 1, 2, 2);
+        assertTrue(model.isEmpty());
+        assertTrue(model.toggle(2));
+        assertTrue(model.toggle(3));
+        model.setSelected(3, true);
+        assertEquals(2, model.getSelectedCount());
+        assertEquals(2, model.getSelectedCount(2));
+        assertFalse(model.toggle(2));
+        assertEquals(1, model.getSelectedCount(2));
+        assertEquals(0, model.getSelectedCount(0));
+        assertEquals(3, model.nextSelected(0));
+        assertEquals(-1, model.nextSelected(4));
+    }
+
+    @Test
+    public void selectAllAndClear() {
+        SelectionModel model = model(0, 1, 1, 2, 1);
+        model.toggle(1);
+        model.selectAll();
+        assertEquals(5, model.getSelectedCount());
+        assertEquals(3, model.getSelectedCount(1));
+        assertTrue(model.isSelected(4));
+        model.setSelected(4, false);
+        assertEquals(2, model.getSelectedCount(1));
+        model.clear();
+        assertTrue(model.isEmpty());
+        assertEquals(0, model.getSelectedCount(1));
+        assertEquals(-1, model.nextSelected(0));
+    }
+
+    @Test
+    public void setItemsClearsSelection() {
+        SelectionModel model = model(0, 0);
+        model.selectAll();
+        model.setItems(new int[]{2});
+        assertTrue(model.isEmpty());
+        assertEquals(1, model.size());
+        model.selectAll();
+        assertEquals(0, model.getSelectedCount(0));
+        assertEquals(1, model.getSelectedCount(2));
+        assertEquals(-1, model.nextSelected(1));
+    }
+
+    /**
+     * Counts stay consistent when selecting all of many items and toggling single items.
+     */
+    @Test
+    public void manyItems() {
+        int[] categories = new int[1000000];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = i % 3;
+        }
+        SelectionModel model = model(categories);
+        for (int i = 0; i < 100; i++) {
+            model.selectAll();
+            model.toggle(i);
+            model.clear();
+        }
+        model.selectAll();
+        model.toggle(999999);
+        assertEquals(999999, model.getSelectedCount());
+        assertEquals(333333, model.getSelectedCount(0));
+        assertEquals(333333, model.getSelectedCount(2));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ChecksummedFileTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private File file;
+
+    /**
+     * Thrown by the fault injector to simulate a crash.
+     */
+    private static class Crash extends IOException {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(Files.createTempDirectory("checksummed").toFile(), "data");
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(UTF_8);
+    }
+
+    private String readFresh() throws IOException {
+        byte[] data = new ChecksummedFile(file).read();
+        return data == null ? null : new String(data, UTF_8);
+    }
+
+    /**
+     * Write "new" over "old", crashing before the given step.
+     *
+     * @param crashStep
+     */
+    private void crashDuringWrite(ChecksummedFile.Step crashStep) throws IOException {
+        new ChecksummedFile(file).write(bytes("old"));
+        ChecksummedFile failing = new ChecksummedFile(file, step -> {
+            if (step == crashStep) {
+                throw new Crash();
+            }
+        });
+        try {
+            failing.write(bytes("new"));
+            fail("Expected crash at " + crashStep);
+        } catch (Crash e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void readsWhatWasWritten() throws IOException {
+        assertNull(readFresh());
+        ChecksummedFile f = new ChecksummedFile(file);
+        f.write(bytes("first"));
+        f.write(bytes("second"));
+        assertEquals("second", readFresh());
+        assertFalse(f.wasRecovered());
+    }
+
+    @Test
+    public void crashBeforeBackupKeepsOldContent() throws IOException {
+        for (ChecksummedFile.Step step : new ChecksummedFile.Step[]{ChecksummedFile.Step.WRITE_HEADER, ChecksummedFile.Step.WRITE_PAYLOAD, ChecksummedFile.Step.SYNC, ChecksummedFile.Step.BACKUP}) {
+            setUp();
+            crashDuringWrite(step);
+            ChecksummedFile f = new ChecksummedFile(file);
+            assertEquals(step.toString(), "old", new String(f.read(), UTF_8));
+            assertTrue(step.toString(), f.wasRecovered());
+        }
+    }
+
+    @Test
+    public void crashBeforeRenameUsesCompleteNewContent() throws IOException {
+        crashDuringWrite(ChecksummedFile.Step.RENAME);
+        assertEquals("new", readFresh());
+    }
+
+    @Test
+    public void writeAfterCrashSucceeds() throws IOException {
+        crashDuringWrite(ChecksummedFile.Step.WRITE_PAYLOAD);
+        new ChecksummedFile(file).write(bytes("newer"));
+        assertEquals("newer", readFresh());
+    }
+
+    @Test
+    public void corruptFileFallsBackToPreviousVersion() throws IOException {
+        ChecksummedFile f = new ChecksummedFile(file);
+        f.write(bytes("old"));
+        f.write(bytes("new"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write('x');
+        }
+        assertEquals("old", new String(f.read(), UTF_8));
+        assertTrue(f.wasRecovered());
+    }
+
+    @Test(expected = ChecksummedFile.CorruptFileException.class)
+    public void noValidCopyIsReported() throws IOException {
+        ChecksummedFile f = new ChecksummedFile(file);
+        f.write(bytes("only"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        f.read();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link KeyedWorkQueue} with a fake executor which only runs submitted workers when told to.
+ */
+public class KeyedWorkQueueTest {
+
+    private static class FakeExecutor implements Executor {
+        private final Queue<Runnable> scheduled = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            scheduled.add(runnable);
+        }
+
+        void runAll() {
+            while (!scheduled.isEmpty()) {
+                scheduled.poll().run();
+            }
+        }
+    }
+
+    private FakeExecutor executor;
+    private List<String> handled;
+    private KeyedWorkQueue<Integer, String> queue;
+
+    @Before
+    public void setUp() {
+        executor = new FakeExecutor();
+        handled = new ArrayList<>();
+        queue = new KeyedWorkQueue<>(executor, (key, task) -> handled.add(key + ":" + task));
+    }
+
+    @Test
+    public void pendingDuplicatesAreMerged() {
+        int[] done = new int[1];
+        assertTrue(queue.submit(2, "NOTIFY", () -> done[0]++));
+        assertFalse(queue.submit(2, "NOTIFY", () -> done[0]++));
+        assertTrue(queue.submit(2, "MARK_DONE", () -> done[0]++));
+        assertFalse(queue.isIdle());
+        executor.runAll();
+        assertEquals(2, handled.size());
+        assertEquals("2:NOTIFY", handled.get(0));
+        assertEquals("2:MARK_DONE", handled.get(1));
+        assertEquals(3, done[0]);
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void onlyTheLastPendingTaskIsMerged() {
+        int[] done = new int[1];
+        assertTrue(queue.submit(2, "NOTIFY", () -> done[0]++));
+        assertTrue(queue.submit(2, "MARK_DONE", () -> done[0]++));
+        assertTrue(queue.submit(2, "NOTIFY", () -> done[0]++));
+        assertFalse(queue.submit(2, "NOTIFY", () -> done[0]++));
+        executor.runAll();
+        assertEquals(3, handled.size());
+        assertEquals("2:NOTIFY", handled.get(0));
+        assertEquals("2:MARK_DONE", handled.get(1));
+        assertEquals("2:NOTIFY", handled.get(2));
+        assertEquals(4, done[0]);
+    }
+
+    @Test
+    public void differentKeysGetOwnWorkers() {
+        queue.submit(2, "NOTIFY", null);
+        queue.submit(4, "NOTIFY", null);
+        queue.submit(2, "MARK_DONE", null);
+        assertEquals(2, executor.scheduled.size());
+        executor.runAll();
+        assertEquals(3, handled.size());
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void failingTaskDoesNotBlockKey() {
+        KeyedWorkQueue<Integer, String> failingQueue = new KeyedWorkQueue<>(executor, (key, task) -> {
+            if (task.equals("FAIL")) {
+                throw new IllegalStateException();
+            }
+            handled.add(key + ":" + task);
+        });
+        int[] done = new int[1];
+        failingQueue.submit(2, "FAIL", () -> done[0]++);
+        failingQueue.submit(2, "NOTIFY", () -> done[0]++);
+        try {
+            executor.scheduled.poll().run();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        executor.runAll();
+        assertEquals(2, done[0]);
+        assertEquals(1, handled.size());
+        assertTrue(failingQueue.isIdle());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuickAddParserTest {
+
+    private static void assertParsed(String input, String text, int minutes) {
+        QuickAddParser.Result result = QuickAddParser.parse(input);
+        assertEquals(input, text, result.getText());
+        assertEquals(input, minutes, result.getMinutes());
+    }
+
+    @Test
+    public void timeAtEnd() {
+        assertParsed("call Bob in 10 min", "call Bob", 10);
+        assertParsed("tea 5m", "tea", 5);
+        assertParsed("Tea 5", "Tea", 5);
+        assertParsed("dentist in 2 Hours", "dentist", 120);
+        assertParsed("renew passport 3d", "renew passport", 3 * 24 * 60);
+    }
+
+    @Test
+    public void timeAtStart() {
+        assertParsed("2h check oven", "check oven", 120);
+        assertParsed("in 15 minutes leave", "leave", 15);
+        assertParsed("10 mangoes to buy", "mangoes to buy", 10);
+    }
+
+    @Test
+    public void onlyTime() {
+        assertParsed("  30 ", "", 30);
+        assertParsed("in 1h", "", 60);
+    }
+
+    @Test
+    public void noTime() {
+        assertParsed("buy milk", "buy milk", -1);
+        assertParsed("meet at 5pm", "meet at 5pm", -1);
+        assertParsed("", "", -1);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 Felix Wiemuth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package felixwiemuth.simplereminder.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SuggestionTrieTest {
+
+    private static final long NOW = 1600000000000L;
+
+    @Test
+    public void frequentAndRecentTextsRankFirst() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Take out trash", NOW);
+        trie.add("Take medicine", NOW);
+        trie.add("take medicine", NOW + 1000);
+        trie.add("Tea", NOW - 10 * SuggestionTrie.HALF_LIFE_MS);
+        trie.add("Tea", NOW - 10 * SuggestionTrie.HALF_LIFE_MS);
+        assertEquals(Arrays.asList("take medicine", "Take out trash", "Tea"), trie.suggest("T", 5));
+        assertEquals(Arrays.asList("take medicine"), trie.suggest("take m", 5));
+        assertEquals(Arrays.asList("take medicine", "Take out trash"), trie.suggest("TAKE", 2));
+        assertTrue(trie.suggest("x", 5).isEmpty());
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void topListIsBounded() {
+        SuggestionTrie trie = new SuggestionTrie();
+        for (int i = 0; i < 20; i++) {
+            trie.add("item " + i, NOW + i);
+        }
+        assertEquals(Arrays.asList("item 19", "item 18", "item 17", "item 16", "item 15"), trie.suggest("item", 10));
+        trie.add("item 3", NOW + 100);
+        assertEquals("item 3", trie.suggest("item", 1).get(0));
+    }
+}